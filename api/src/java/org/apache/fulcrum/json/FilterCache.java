@@ -0,0 +1,265 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * A size and time bounded cache. The entries are kept in access order behind
+ * a lock, so the least recently accessed entry is evicted in constant time, if
+ * an insert exceeds the maximum size. Entries not accessed for the expiration
+ * time are swept from the eldest end on each access. The values are created
+ * outside of the lock.
+ *
+ * The services cache their compiled filters with it.
+ *
+ * @param <K> the key type
+ * @param <V> the value type
+ * @author gk
+ * @version $Id$
+ */
+public final class FilterCache<K, V> {
+
+    private static final class Entry<V> {
+        final V value;
+        long accessed;
+
+        Entry(V value, long accessed) {
+            this.value = value;
+            this.accessed = accessed;
+        }
+    }
+
+    private final LinkedHashMap<K, Entry<V>> entries = new LinkedHashMap<>(16, 0.75f, true);
+    private final ReentrantLock lock = new ReentrantLock();
+    private final int maxSize;
+    private final long expireAfterAccessNanos;
+    private final LongSupplier ticker;
+    // the number of entries, read without the lock
+    private volatile int size;
+
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+
+    /**
+     * @param maxSize                  maximum number of entries
+     * @param expireAfterAccessSeconds entries not accessed for this time are
+     *                                 evicted, <code>0</code> disables the
+     *                                 expiration
+     */
+    public FilterCache(int maxSize, long expireAfterAccessSeconds) {
+        this(maxSize, expireAfterAccessSeconds, System::nanoTime);
+    }
+
+    /**
+     * @param maxSize                  maximum number of entries
+     * @param expireAfterAccessSeconds entries not accessed for this time are
+     *                                 evicted, <code>0</code> disables the
+     *                                 expiration
+     * @param ticker                   the time source in nanoseconds
+     */
+    public FilterCache(int maxSize, long expireAfterAccessSeconds, LongSupplier ticker) {
+        if (maxSize < 1) {
+            throw new IllegalArgumentException("maxSize must be positive: " + maxSize);
+        }
+        this.maxSize = maxSize;
+        this.expireAfterAccessNanos = TimeUnit.SECONDS.toNanos(expireAfterAccessSeconds);
+        this.ticker = ticker;
+    }
+
+    /**
+     * @param key    the key
+     * @param loader creates the value, if it is not cached, may be called
+     *               concurrently for the same key
+     * @return the cached or created value
+     */
+    public V get(K key, Function<? super K, ? extends V> loader) {
+        V value = getIfPresent(key);
+        if (value != null) {
+            hits.increment();
+            return value;
+        }
+        misses.increment();
+        V created = loader.apply(key);
+        lock.lock();
+        try {
+            Entry<V> existing = entries.get(key);
+            if (existing != null) {
+                existing.accessed = ticker.getAsLong();
+                return existing.value;
+            }
+            insert(key, created);
+        } finally {
+            size = entries.size();
+            lock.unlock();
+        }
+        return created;
+    }
+
+    /**
+     * @param key the key
+     * @return the cached value or <code>null</code>, which is not counted
+     */
+    public V getIfPresent(K key) {
+        lock.lock();
+        try {
+            long now = ticker.getAsLong();
+            expire(now);
+            Entry<V> entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            entry.accessed = now;
+            return entry.value;
+        } finally {
+            size = entries.size();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @param key   the key
+     * @param value the value replacing a cached one
+     */
+    public void put(K key, V value) {
+        lock.lock();
+        try {
+            insert(key, value);
+        } finally {
+            size = entries.size();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes the entry, which is not counted as eviction.
+     *
+     * @param key the key
+     * @return the removed value or <code>null</code>
+     */
+    public V remove(K key) {
+        lock.lock();
+        try {
+            Entry<V> entry = entries.remove(key);
+            return (entry != null) ? entry.value : null;
+        } finally {
+            size = entries.size();
+            lock.unlock();
+        }
+    }
+
+    private void insert(K key, V value) {
+        long now = ticker.getAsLong();
+        entries.put(key, new Entry<>(value, now));
+        expire(now);
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (entries.size() > maxSize && eldest.hasNext()) {
+            eldest.next();
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Sweeps the expired entries, which are the eldest in access order.
+     */
+    private void expire(long now) {
+        if (expireAfterAccessNanos <= 0) {
+            return;
+        }
+        Iterator<Entry<V>> eldest = entries.values().iterator();
+        while (eldest.hasNext() && now - eldest.next().accessed > expireAfterAccessNanos) {
+            eldest.remove();
+            evictions.increment();
+        }
+    }
+
+    /**
+     * Removes the matching entries, which is not counted as eviction.
+     *
+     * @param filter matches the keys to be removed
+     */
+    public void removeIf(Predicate<? super K> filter) {
+        lock.lock();
+        try {
+            entries.keySet().removeIf(filter);
+        } finally {
+            size = entries.size();
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes all entries, which is not counted as eviction.
+     */
+    public void clear() {
+        lock.lock();
+        try {
+            entries.clear();
+        } finally {
+            size = 0;
+            lock.unlock();
+        }
+    }
+
+    /**
+     * @return the number of entries
+     */
+    public int size() {
+        return size;
+    }
+
+    /**
+     * @return <code>true</code> if there are no entries, which is checked without
+     *         the lock
+     */
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    /**
+     * @return the number of lookups by {@link #get(Object, Function)}, which found the value
+     */
+    public long hitCount() {
+        return hits.sum();
+    }
+
+    /**
+     * @return the number of lookups by {@link #get(Object, Function)}, which created the value
+     */
+    public long missCount() {
+        return misses.sum();
+    }
+
+    /**
+     * @return the number of entries evicted by size or expiration
+     */
+    public long evictionCount() {
+        return evictions.sum();
+    }
+}
@@ -0,0 +1,221 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.text.DateFormat;
+import java.text.DecimalFormat;
+import java.text.NumberFormat;
+import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.Instant;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.time.zone.ZoneRules;
+import java.util.Date;
+import java.util.GregorianCalendar;
+import java.util.Locale;
+import java.util.TimeZone;
+
+/**
+ * An immutable date format, which could be shared between threads without
+ * locking. It formats with a {@link DateTimeFormatter}, if the
+ * {@link SimpleDateFormat} it is created from uses only numeric year, month,
+ * day, hour (0-23), minute and second fields with ASCII digits, a Gregorian
+ * calendar and a time zone with the rules of its id. These fields render the
+ * same text in both pattern languages. Dates before 1970 and from 2037 on are
+ * formatted by the formatter only, if both time zone implementations agree on
+ * their offset. Other patterns, e.g. with text fields,
+ * whose rendering depends on the locale of the format, fractions of a second or
+ * 12-hour fields, and other {@link DateFormat} implementations are formatted by
+ * a copy of the date format per call.
+ *
+ * Parsing always uses a copy of the date format, so the lenient parsing of
+ * {@link SimpleDateFormat} (e.g. single digits for <code>MM</code>, trailing
+ * text) is kept.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public final class ImmutableDateFormat {
+
+    // 10000-01-01T00:00:00Z minus a day, longer years are rendered with a sign by DateTimeFormatter
+    private static final long MAX_FORMATTED = 253402300800000L - 86400000L;
+
+    // 2037-01-01T00:00:00Z, java.util.TimeZone uses transition tables until 2037 only
+    private static final long MAX_TRANSITIONS = 2114380800000L;
+
+    private final DateFormat dateFormat;
+    // null, if the format could not be converted
+    private final DateTimeFormatter formatter;
+    // dates before the Gregorian change are Julian in SimpleDateFormat
+    private final long minFormatted;
+    // historic offsets, e.g. local mean time, differ between the time zone implementations
+    private final TimeZone timeZone;
+    private final ZoneRules rules;
+
+    private ImmutableDateFormat(DateFormat df) {
+        this.dateFormat = (DateFormat) df.clone();
+        this.formatter = (df instanceof SimpleDateFormat) ? toFormatter((SimpleDateFormat) df) : null;
+        this.minFormatted = (formatter != null) ? ((GregorianCalendar) df.getCalendar()).getGregorianChange().getTime()
+                + 86400000L : Long.MAX_VALUE;
+        this.timeZone = (TimeZone) df.getTimeZone().clone();
+        this.rules = timeZone.toZoneId().getRules();
+    }
+
+    /**
+     * @param df the date format, which is copied
+     * @return the immutable date format
+     */
+    public static ImmutableDateFormat of(DateFormat df) {
+        return new ImmutableDateFormat(df);
+    }
+
+    /**
+     * @param df the date format
+     * @return the equivalent formatter or <code>null</code>, if the rendering
+     *         could differ
+     */
+    private static DateTimeFormatter toFormatter(SimpleDateFormat df) {
+        if (df.getCalendar().getClass() != GregorianCalendar.class) {
+            return null;
+        }
+        NumberFormat numbers = df.getNumberFormat();
+        if (numbers.getClass() != DecimalFormat.class || numbers.isGroupingUsed()
+                || ((DecimalFormat) numbers).getDecimalFormatSymbols().getZeroDigit() != '0') {
+            return null;
+        }
+        TimeZone timeZone = df.getTimeZone();
+        ZoneId zone = timeZone.toZoneId();
+        if (!TimeZone.getTimeZone(zone).hasSameRules(timeZone)) {
+            return null;
+        }
+        String pattern = df.toPattern();
+        if (!isNumeric(pattern)) {
+            return null;
+        }
+        try {
+            // only numeric fields, the locale does not change the rendering
+            return DateTimeFormatter.ofPattern(pattern, Locale.ROOT).withZone(zone);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    /**
+     * @param pattern the pattern of a {@link SimpleDateFormat}
+     * @return <code>true</code> if the pattern contains only the letters
+     *         <code>y</code> (up to 4), <code>M d H m s</code> (up to 2) and
+     *         literals, which both pattern languages read the same way
+     */
+    static boolean isNumeric(String pattern) {
+        boolean quoted = false;
+        int i = 0;
+        while (i < pattern.length()) {
+            char c = pattern.charAt(i);
+            if (c == '\'') {
+                quoted = !quoted;
+                i++;
+                continue;
+            }
+            if (quoted) {
+                i++;
+                continue;
+            }
+            if (c == '[' || c == ']' || c == '{' || c == '}' || c == '#') {
+                // reserved by DateTimeFormatter
+                return false;
+            }
+            int count = 1;
+            while (i + count < pattern.length() && pattern.charAt(i + count) == c) {
+                count++;
+            }
+            if ((c >= 'a' && c <= 'z') || (c >= 'A' && c <= 'Z')) {
+                int max = (c == 'y') ? 4 : ("MdHms".indexOf(c) >= 0) ? 2 : 0;
+                if (count > max) {
+                    return false;
+                }
+            }
+            i += count;
+        }
+        return !quoted;
+    }
+
+    /**
+     * @return <code>true</code> if the format is converted into a
+     *         {@link DateTimeFormatter}, otherwise each call copies the date
+     *         format
+     */
+    public boolean isConverted() {
+        return formatter != null;
+    }
+
+    /**
+     * @return the pattern of a {@link SimpleDateFormat}, otherwise
+     *         <code>null</code>
+     */
+    public String getPattern() {
+        return (dateFormat instanceof SimpleDateFormat) ? ((SimpleDateFormat) dateFormat).toPattern() : null;
+    }
+
+    /**
+     * @return a copy of the date format
+     */
+    public DateFormat getDateFormat() {
+        return (DateFormat) dateFormat.clone();
+    }
+
+    /**
+     * @param value the date, also a subclass like java.sql.Date, which does not
+     *              support {@link Date#toInstant()}
+     * @return the formatted date
+     */
+    public String format(Date value) {
+        return format(value.getTime());
+    }
+
+    /**
+     * @param millis the milliseconds since the epoch
+     * @return the formatted date
+     */
+    public String format(long millis) {
+        if (formatter == null || millis < minFormatted || millis > MAX_FORMATTED) {
+            return getDateFormat().format(new Date(millis));
+        }
+        Instant instant = Instant.ofEpochMilli(millis);
+        if ((millis < 0 || millis >= MAX_TRANSITIONS) && timeZone.getOffset(millis) != rules.getOffset(instant).getTotalSeconds() * 1000) {
+            return getDateFormat().format(new Date(millis));
+        }
+        return formatter.format(instant);
+    }
+
+    /**
+     * @param text the text
+     * @return the date parsed by a copy of the date format
+     * @throws ParseException if the beginning of the text could not be parsed
+     */
+    public Date parse(String text) throws ParseException {
+        return getDateFormat().parse(text);
+    }
+
+    @Override
+    public String toString() {
+        return "ImmutableDateFormat [pattern=" + getPattern() + ", converted=" + isConverted() + "]";
+    }
+}
@@ -19,8 +19,27 @@ package org.apache.fulcrum.json;
  * under the License.
  */
 
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.WritableByteChannel;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
+import java.util.ArrayList;
 import java.util.Collection;
+import java.util.Iterator;
+import java.util.Spliterator;
+import java.util.Spliterators;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
  * This class defines custom methods needed to serialize and deserialize and
@@ -90,6 +109,251 @@ public interface JsonService {
 	 */
 	<T> String ser(Object src, Class<T> type, Boolean cleanCache) throws Exception;
 
+	/**
+	 * Serializes a Java object with a filter profile, which is defined by name in
+	 * the component configuration and prepared at initialization.
+	 * 
+	 * The default implementation has no profiles and rejects any name,
+	 * implementations supporting profiles override it.
+	 * 
+	 * @param src         The Java object to be serialized
+	 * @param profileName The name of the configured filter profile
+	 * @return JSON string
+	 * @throws IllegalArgumentException if the profile is unknown
+	 * @throws Exception if the JSON serialization fails
+	 */
+	default String ser(Object src, String profileName) throws Exception {
+		throw new IllegalArgumentException("no filter profile " + profileName);
+	}
+
+	/**
+	 * Serializes a Java object as UTF-8 encoded JSON directly into the provided
+	 * stream. The stream is flushed, but not closed.
+	 * 
+	 * The default implementation delegates to {@link #ser(Object)}, implementations
+	 * should override it to avoid the intermediate string.
+	 * 
+	 * @param src the java object to be serialized, not null.
+	 * @param out the target stream, not null.
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default void ser(Object src, OutputStream out) throws Exception {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		ser(src, writer);
+		writer.flush();
+	}
+
+	/**
+	 * Serializes a Java object directly into the provided writer. The writer is
+	 * flushed, but not closed.
+	 * 
+	 * The default implementation delegates to {@link #ser(Object)}, implementations
+	 * should override it to avoid the intermediate string.
+	 * 
+	 * @param src    the java object to be serialized, not null.
+	 * @param writer the target writer, not null.
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default void ser(Object src, Writer writer) throws Exception {
+		String json = ser(src);
+		if (json != null) {
+			writer.write(json);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Serializes a Java object as UTF-8 encoded JSON into the provided channel. The
+	 * channel is not closed.
+	 * 
+	 * @see #ser(Object, OutputStream)
+	 * 
+	 * @param src     the java object to be serialized, not null.
+	 * @param channel the target channel, not null.
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default void ser(Object src, WritableByteChannel channel) throws Exception {
+		ser(src, Channels.newOutputStream(channel));
+	}
+
+	/**
+	 * Serializes the elements as UTF-8 encoded JSON array element by element, e.g.
+	 * from a lazy database cursor, without materializing a collection. The stream
+	 * is flushed, but not closed.
+	 * 
+	 * @param src the elements to be serialized, not null.
+	 * @param out the target stream, not null.
+	 * @param <T> class type of the elements
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default <T> void ser(Iterator<T> src, OutputStream out) throws Exception {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		ser(src, writer);
+		writer.flush();
+	}
+
+	/**
+	 * Serializes the elements as JSON array element by element into the writer.
+	 * The writer is flushed, but not closed.
+	 * 
+	 * The default implementation calls {@link #ser(Object)} for each element and
+	 * writes <code>null</code> elements as JSON null, implementations should
+	 * override it to reuse the writer setup.
+	 * 
+	 * @see #ser(Iterator, OutputStream)
+	 * 
+	 * @param src    the elements to be serialized, not null.
+	 * @param writer the target writer, not null.
+	 * @param <T> class type of the elements
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default <T> void ser(Iterator<T> src, Writer writer) throws Exception {
+		writer.write('[');
+		boolean first = true;
+		while (src.hasNext()) {
+			if (!first) {
+				writer.write(',');
+			}
+			writer.write(serElement(src.next()));
+			first = false;
+		}
+		writer.write(']');
+		writer.flush();
+	}
+
+	/**
+	 * @see #ser(Iterator, OutputStream)
+	 * 
+	 * @param src the elements to be serialized, not null.
+	 * @param out the target stream, not null.
+	 * @param <T> class type of the elements
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default <T> void ser(Stream<T> src, OutputStream out) throws Exception {
+		ser(src.iterator(), out);
+	}
+
+	/**
+	 * Serializes the elements as JSON Lines (NDJSON), that is UTF-8 encoded, one
+	 * JSON record per line, each terminated by a newline. The stream is flushed,
+	 * but not closed.
+	 * 
+	 * @param src the records to be serialized, not null.
+	 * @param out the target stream, not null.
+	 * @param <T> class type of the records
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default <T> void serJsonLines(Iterator<T> src, OutputStream out) throws Exception {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		serJsonLines(src, writer);
+		writer.flush();
+	}
+
+	/**
+	 * Serializes the elements as JSON Lines (NDJSON) into the writer. The writer
+	 * is flushed, but not closed.
+	 * 
+	 * The default implementation calls {@link #ser(Object)} for each record and
+	 * writes <code>null</code> records as JSON null, implementations should
+	 * override it to reuse the writer setup.
+	 * 
+	 * @see #serJsonLines(Iterator, OutputStream)
+	 * 
+	 * @param src    the records to be serialized, not null.
+	 * @param writer the target writer, not null.
+	 * @param <T> class type of the records
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default <T> void serJsonLines(Iterator<T> src, Writer writer) throws Exception {
+		while (src.hasNext()) {
+			writer.write(serElement(src.next()));
+			writer.write('\n');
+		}
+		writer.flush();
+	}
+
+	/**
+	 * @param element the element of a JSON array or a JSON Lines record
+	 * @return the JSON of the element, <code>null</code> as JSON null
+	 * @throws Exception if the element could not be serialized, which is also the
+	 *                   case, if {@link #ser(Object)} returns <code>null</code>
+	 */
+	private String serElement(Object element) throws Exception {
+		if (element == null) {
+			return "null";
+		}
+		String json = ser(element);
+		if (json == null) {
+			throw new IllegalStateException("Could not serialize element of " + element.getClass());
+		}
+		return json;
+	}
+
+	/**
+	 * @see #serJsonLines(Iterator, OutputStream)
+	 * 
+	 * @param src the records to be serialized, not null.
+	 * @param out the target stream, not null.
+	 * @param <T> class type of the records
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default <T> void serJsonLines(Stream<T> src, OutputStream out) throws Exception {
+		serJsonLines(src.iterator(), out);
+	}
+
+	/**
+	 * Serializes a Java object as UTF-8 encoded JSON.
+	 * 
+	 * @param src the java object to be serialized, not null.
+	 * 
+	 * @return the UTF-8 encoded JSON bytes
+	 * 
+	 * @throws Exception if JSON serialization fails
+	 */
+	default byte[] serToBytes(Object src) throws Exception {
+		ByteArrayOutputStream out = new ByteArrayOutputStream();
+		ser(src, out);
+		return out.toByteArray();
+	}
+
+	/**
+	 * Serializes a Java object as UTF-8 encoded JSON into the buffer starting at its
+	 * current position. The position is advanced by the number of bytes written.
+	 * 
+	 * @param src    the java object to be serialized, not null.
+	 * @param buffer the target buffer, not null.
+	 * 
+	 * @return the number of bytes written
+	 * 
+	 * @throws java.nio.BufferOverflowException if the remaining buffer is too small,
+	 *                                          the buffer content is then undefined
+	 * @throws Exception                        if JSON serialization fails
+	 */
+	default int serInto(Object src, ByteBuffer buffer) throws Exception {
+		int start = buffer.position();
+		ser(src, new OutputStream() {
+			@Override
+			public void write(int b) throws IOException {
+				buffer.put((byte) b);
+			}
+
+			@Override
+			public void write(byte[] b, int off, int len) throws IOException {
+				buffer.put(b, off, len);
+			}
+		});
+		return buffer.position() - start;
+	}
+
 	/**
 	 * Deserializing a JSON string
 	 * 
@@ -102,6 +366,41 @@ public interface JsonService {
 	 */
 	<T> T deSer(String src, Class<T> type) throws Exception;
 
+	/**
+	 * Deserializing UTF-8 encoded JSON bytes without decoding them into a string
+	 * first.
+	 * 
+	 * The default implementation decodes the bytes and delegates to
+	 * {@link #deSer(String, Class)}.
+	 * 
+	 * @param src  the UTF-8 encoded JSON to be deserialized
+	 * @param type the Java Type to be used as a class
+	 * @param <T> class type of the object
+	 * @return the Java Object
+	 * 
+	 * @throws Exception if JSON deserialization fails
+	 */
+	default <T> T deSer(byte[] src, Class<T> type) throws Exception {
+		return deSer(new String(src, StandardCharsets.UTF_8), type);
+	}
+
+	/**
+	 * Deserializing the remaining UTF-8 encoded JSON bytes of the buffer. The
+	 * buffer position is advanced to its limit.
+	 * 
+	 * @see #deSer(byte[], Class)
+	 * 
+	 * @param src  the buffer containing UTF-8 encoded JSON
+	 * @param type the Java Type to be used as a class
+	 * @param <T> class type of the object
+	 * @return the Java Object
+	 * 
+	 * @throws Exception if JSON deserialization fails
+	 */
+	default <T> T deSer(ByteBuffer src, Class<T> type) throws Exception {
+		return deSer(StandardCharsets.UTF_8.decode(src).toString(), type);
+	}
+
 	/**
 	 * This is to deserialize collections. Depending on the implementation either
 	 * both collectiontype and elementType is needed or the elementType will be
@@ -119,7 +418,87 @@ public interface JsonService {
 	 * @throws Exception if serialize collection fails
 	 */
 	<T> Collection<T> deSerCollection(String json, Object collectionType, Class<T> elementType) throws Exception;
+
+	/**
+	 * Deserializes the elements of a top-level JSON array lazily, one element per
+	 * {@link Iterator#next()} call, without materializing the whole collection.
+	 * 
+	 * The source stream is closed, if the iterator is exhausted. Implementations
+	 * wrap I/O errors during iteration into unchecked exceptions.
+	 * 
+	 * The default implementation is not lazy, it reads the whole source, closes
+	 * it and iterates over the result of {@link #deSerCollection(String, Object, Class)}
+	 * with an {@link ArrayList} as collection type. Implementations should
+	 * override it to bind one element per call.
+	 * 
+	 * @param src         the UTF-8 encoded JSON array
+	 * @param elementType the element type, not null
+	 * @param <T> class type of the elements
+	 * @return the element iterator
+	 * @throws Exception if the source could not be read as a JSON array
+	 */
+	default <T> Iterator<T> deSerIterator(InputStream src, Class<T> elementType) throws Exception {
+		String json;
+		try (InputStream in = src) {
+			json = new String(in.readAllBytes(), StandardCharsets.UTF_8);
+		}
+		return deSerCollection(json, new ArrayList<T>(), elementType).iterator();
+	}
+
+	/**
+	 * Sequential {@link Stream} variant of {@link #deSerIterator(InputStream, Class)}.
+	 * Closing the returned stream closes the source.
+	 * 
+	 * @param src         the UTF-8 encoded JSON array
+	 * @param elementType the element type, not null
+	 * @param <T> class type of the elements
+	 * @return the lazy element stream
+	 * @throws Exception if the source could not be opened as a JSON array
+	 */
+	default <T> Stream<T> deSerStream(InputStream src, Class<T> elementType) throws Exception {
+		Iterator<T> iterator = deSerIterator(src, elementType);
+		return StreamSupport.stream(Spliterators.spliteratorUnknownSize(iterator, Spliterator.ORDERED), false)
+				.onClose(() -> {
+					try {
+						src.close();
+					} catch (IOException e) {
+						throw new UncheckedIOException(e);
+					}
+				});
+	}
 	
+	/**
+	 * Deserializes JSON Lines (NDJSON), one record per line, lazily into a stream
+	 * of typed objects. Blank lines are skipped. Closing the returned stream closes
+	 * the source.
+	 * 
+	 * The default implementation calls {@link #deSer(String, Class)} for each line.
+	 * 
+	 * @param src  the UTF-8 encoded records
+	 * @param type the record type, not null
+	 * @param <T> class type of the records
+	 * @return the lazy record stream
+	 * @throws Exception if the source could not be read
+	 */
+	default <T> Stream<T> deSerJsonLines(InputStream src, Class<T> type) throws Exception {
+		BufferedReader reader = new BufferedReader(new InputStreamReader(src, StandardCharsets.UTF_8));
+		return reader.lines().filter(line -> !line.trim().isEmpty()).map(line -> {
+			try {
+				return deSer(line, type);
+			} catch (RuntimeException e) {
+				throw e;
+			} catch (Exception e) {
+				throw new IllegalStateException("Could not deserialize JSON line", e);
+			}
+		}).onClose(() -> {
+			try {
+				reader.close();
+			} catch (IOException e) {
+				throw new UncheckedIOException(e);
+			}
+		});
+	}
+
 	/**
 	 * This does a filtered convert, that is serialization and deserialization in one call.
 	 * 
@@ -284,6 +663,87 @@ public interface JsonService {
 	 */
 	public String serializeAllExceptFilter(Object src, String... filterAttr) throws Exception;
 
+	/**
+	 * Streaming variant of {@link #serializeOnlyFilter(Object, Class, String...)},
+	 * writing UTF-8 encoded JSON into the provided stream. The stream is flushed,
+	 * but not closed.
+	 * 
+	 * @param src         The Java object to serialize
+	 * @param out         the target stream, not null.
+	 * @param filterClass The filter class
+	 * @param <T> class type of the object
+	 * @param filterAttr  The class bean attributes which should be serialized
+	 * @throws Exception If JSON serialization or filter registration fails
+	 */
+	default <T> void serializeOnlyFilter(Object src, OutputStream out, Class<T> filterClass, String... filterAttr)
+			throws Exception {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		serializeOnlyFilter(src, writer, filterClass, filterAttr);
+		writer.flush();
+	}
+
+	/**
+	 * Streaming variant of {@link #serializeOnlyFilter(Object, Class, String...)}.
+	 * The writer is flushed, but not closed.
+	 * 
+	 * @param src         The Java object to serialize
+	 * @param writer      the target writer, not null.
+	 * @param filterClass The filter class
+	 * @param <T> class type of the object
+	 * @param filterAttr  The class bean attributes which should be serialized
+	 * @throws Exception If JSON serialization or filter registration fails
+	 */
+	default <T> void serializeOnlyFilter(Object src, Writer writer, Class<T> filterClass, String... filterAttr)
+			throws Exception {
+		String json = serializeOnlyFilter(src, filterClass, filterAttr);
+		if (json != null) {
+			writer.write(json);
+		}
+		writer.flush();
+	}
+
+	/**
+	 * Streaming variant of
+	 * {@link #serializeAllExceptFilter(Object, Class, String...)}, writing UTF-8
+	 * encoded JSON into the provided stream. The stream is flushed, but not closed.
+	 * 
+	 * @param src         The Java object to serialize
+	 * @param out         the target stream, not null.
+	 * @param filterClass The class, which should be filtered out, if found as a
+	 *                    property type.
+	 * @param <T> class type of the object
+	 * @param filterAttr  The bean attributes which should not be serialized
+	 * @throws Exception If JSON serialization or filter registration fails
+	 */
+	default <T> void serializeAllExceptFilter(Object src, OutputStream out, Class<T> filterClass,
+			String... filterAttr) throws Exception {
+		Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+		serializeAllExceptFilter(src, writer, filterClass, filterAttr);
+		writer.flush();
+	}
+
+	/**
+	 * Streaming variant of
+	 * {@link #serializeAllExceptFilter(Object, Class, String...)}. The writer is
+	 * flushed, but not closed.
+	 * 
+	 * @param src         The Java object to serialize
+	 * @param writer      the target writer, not null.
+	 * @param filterClass The class, which should be filtered out, if found as a
+	 *                    property type.
+	 * @param <T> class type of the object
+	 * @param filterAttr  The bean attributes which should not be serialized
+	 * @throws Exception If JSON serialization or filter registration fails
+	 */
+	default <T> void serializeAllExceptFilter(Object src, Writer writer, Class<T> filterClass, String... filterAttr)
+			throws Exception {
+		String json = serializeAllExceptFilter(src, filterClass, filterAttr);
+		if (json != null) {
+			writer.write(json);
+		}
+		writer.flush();
+	}
+
 	/**
 	 * Adds an adapter (mixin, serializer,..) for the target class depending on the
 	 * JsonService implementation. Cft. to
@@ -0,0 +1,105 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayInputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Default methods of {@link JsonService}, the dummy implementation serializes
+ * with {@link Object#toString()}.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class DefaultMethodsTest {
+
+    private final JsonService service = new DummyJSONServiceImpl();
+
+    @Test
+    public void testSerIteratorWithNullElement() throws Exception {
+        StringWriter writer = new StringWriter();
+        service.ser(Arrays.asList(1, null, 2).iterator(), writer);
+        assertEquals("[1,null,2]", writer.toString());
+    }
+
+    @Test
+    public void testSerJsonLinesWithNullElement() throws Exception {
+        StringWriter writer = new StringWriter();
+        service.serJsonLines(Arrays.asList(1, null, 2).iterator(), writer);
+        assertEquals("1\nnull\n2\n", writer.toString());
+    }
+
+    @Test
+    public void testDeSerIteratorReadsCollection() throws Exception {
+        JsonService collecting = new DummyJSONServiceImpl() {
+            @Override
+            @SuppressWarnings("unchecked")
+            public <T> Collection<T> deSerCollection(String json, Object collectionType, Class<T> elementType) {
+                ((Collection<String>) collectionType).addAll(Arrays.asList(json.split(",")));
+                return (Collection<T>) collectionType;
+            }
+        };
+        AtomicBoolean closed = new AtomicBoolean();
+        InputStream src = new ByteArrayInputStream("a,\u00e4".getBytes(StandardCharsets.UTF_8)) {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        Iterator<String> iterator = collecting.deSerIterator(src, String.class);
+        assertTrue(closed.get());
+        assertEquals("a", iterator.next());
+        assertEquals("\u00e4", iterator.next());
+        assertFalse(iterator.hasNext());
+    }
+
+    @Test
+    public void testSerUnknownProfile() throws Exception {
+        assertThrows(IllegalArgumentException.class, () -> service.ser(1, "unknown"));
+    }
+
+    @Test
+    public void testSerIteratorFailure() throws Exception {
+        Object unserializable = new Object() {
+            @Override
+            public String toString() {
+                return null;
+            }
+        };
+        assertThrows(IllegalStateException.class,
+                () -> service.ser(Arrays.asList(1, unserializable).iterator(), new StringWriter()));
+        assertThrows(IllegalStateException.class,
+                () -> service.serJsonLines(Arrays.asList(unserializable).iterator(), new StringWriter()));
+    }
+}
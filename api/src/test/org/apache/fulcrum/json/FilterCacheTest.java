@@ -0,0 +1,84 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * Filter cache eviction and statistics, the time is advanced by a fake clock.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class FilterCacheTest {
+
+    private final AtomicLong clock = new AtomicLong();
+
+    @Test
+    public void testEvictLeastRecentlyUsed() throws Exception {
+        FilterCache<String, String> cache = new FilterCache<>(2, 0, clock::get);
+        assertEquals("A", cache.get("a", String::toUpperCase));
+        assertEquals("B", cache.get("b", String::toUpperCase));
+        assertEquals("A", cache.get("a", key -> "not loaded"));
+        assertEquals("C", cache.get("c", String::toUpperCase));
+        assertEquals(2, cache.size());
+        assertEquals(1, cache.evictionCount());
+        // b was evicted, a is still cached
+        assertEquals("A", cache.get("a", key -> "not loaded"));
+        assertEquals("b", cache.get("b", key -> key));
+        assertEquals(2, cache.hitCount());
+        assertEquals(4, cache.missCount());
+    }
+
+    @Test
+    public void testExpireAfterAccess() throws Exception {
+        FilterCache<String, String> cache = new FilterCache<>(10, 1, clock::get);
+        cache.get("a", String::toUpperCase);
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(900));
+        // the access renews the entry
+        assertEquals("A", cache.get("a", key -> key));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(900));
+        assertEquals("A", cache.get("a", key -> key));
+        clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(1100));
+        assertEquals("a", cache.get("a", key -> key));
+        assertEquals(1, cache.evictionCount());
+        assertEquals(2, cache.missCount());
+    }
+
+    @Test
+    public void testIdleEntriesExpireOnAccessOfOthers() throws Exception {
+        FilterCache<String, String> cache = new FilterCache<>(10, 1, clock::get);
+        cache.put("a", "A");
+        cache.put("b", "B");
+        clock.addAndGet(TimeUnit.SECONDS.toNanos(2));
+        cache.put("c", "C");
+        assertEquals(1, cache.size());
+        assertEquals(2, cache.evictionCount());
+        assertNull(cache.getIfPresent("a"));
+        assertEquals("C", cache.getIfPresent("c"));
+        assertEquals("C", cache.remove("c"));
+        assertEquals(0, cache.size());
+    }
+}
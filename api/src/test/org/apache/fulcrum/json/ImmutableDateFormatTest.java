@@ -0,0 +1,102 @@
+package org.apache.fulcrum.json;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.Locale;
+import java.util.Random;
+import java.util.SimpleTimeZone;
+import java.util.TimeZone;
+
+import org.junit.jupiter.api.Test;
+
+/**
+ * The immutable date format renders and parses like the
+ * {@link SimpleDateFormat} it is created from.
+ *
+ * @author gk
+ * @version $Id$
+ */
+public class ImmutableDateFormatTest {
+
+    @Test
+    public void testConvertedPatterns() throws Exception {
+        assertTrue(ImmutableDateFormat.of(new SimpleDateFormat("MM/dd/yyyy")).isConverted());
+        assertTrue(ImmutableDateFormat.of(new SimpleDateFormat("yyyy-MM-dd'T'HH:mm:ss'Z'")).isConverted());
+        assertTrue(ImmutableDateFormat.of(new SimpleDateFormat("'o''clock' H")).isConverted());
+        // text, 12-hour, fractions and letters with other meanings
+        assertFalse(ImmutableDateFormat.of(new SimpleDateFormat("dd MMM yyyy")).isConverted());
+        assertFalse(ImmutableDateFormat.of(new SimpleDateFormat("hh:mm a")).isConverted());
+        assertFalse(ImmutableDateFormat.of(new SimpleDateFormat("HH:mm:ss.SSS")).isConverted());
+        assertFalse(ImmutableDateFormat.of(new SimpleDateFormat("yyyy-MM-dd u")).isConverted());
+        assertFalse(ImmutableDateFormat.of(new SimpleDateFormat("[yyyy]")).isConverted());
+        // digits and calendar of the locale
+        assertFalse(ImmutableDateFormat.of(new SimpleDateFormat("yyyy", Locale.forLanguageTag("th-TH-u-nu-thai")))
+                .isConverted());
+        assertFalse(ImmutableDateFormat.of(new SimpleDateFormat("yyyy", new Locale("th", "TH"))).isConverted());
+        // a time zone with custom rules
+        SimpleDateFormat custom = new SimpleDateFormat("HH:mm");
+        custom.setTimeZone(new SimpleTimeZone(3600000, "Europe/Berlin"));
+        assertFalse(ImmutableDateFormat.of(custom).isConverted());
+    }
+
+    @Test
+    public void testFormatLikeSimpleDateFormat() throws Exception {
+        String[] patterns = { "MM/dd/yyyy", "yy-M-d H:m:s", "yyyy-MM-dd'T'HH:mm:ss", "dd. MMMM yyyy", "hh:mm a",
+                "HH:mm:ss.SSS", "yyyy-MM-dd u" };
+        Random random = new Random(42);
+        for (String pattern : patterns) {
+            for (Locale locale : new Locale[] { Locale.US, Locale.GERMAN, new Locale("th", "TH") }) {
+                for (String zone : new String[] { "UTC", "America/New_York", "Asia/Kolkata" }) {
+                    SimpleDateFormat df = new SimpleDateFormat(pattern, locale);
+                    df.setTimeZone(TimeZone.getTimeZone(zone));
+                    ImmutableDateFormat format = ImmutableDateFormat.of(df);
+                    for (int i = 0; i < 100; i++) {
+                        Date date = new Date(random.nextLong() % 4000000000000L);
+                        assertEquals(df.format(date), format.format(date), pattern + " " + locale + " " + zone);
+                    }
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testFormatJulianDates() throws Exception {
+        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd");
+        df.setTimeZone(TimeZone.getTimeZone("UTC"));
+        Date julian = df.parse("1500-03-01");
+        assertEquals("1500-03-01", ImmutableDateFormat.of(df).format(julian));
+    }
+
+    @Test
+    public void testParseLikeSimpleDateFormat() throws Exception {
+        SimpleDateFormat df = new SimpleDateFormat("MM/dd/yyyy");
+        ImmutableDateFormat format = ImmutableDateFormat.of(df);
+        assertEquals(df.parse("1/5/2020"), format.parse("1/5/2020"));
+        assertEquals(df.parse("01/05/2020"), format.parse("01/05/2020 trailing"));
+        SimpleDateFormat hours = new SimpleDateFormat("yyyy-MM-dd hh:mm");
+        assertEquals(hours.parse("2020-01-05 11:30"), ImmutableDateFormat.of(hours).parse("2020-01-05 11:30"));
+    }
+}
@@ -0,0 +1,170 @@
+package org.apache.fulcrum.json.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fulcrum.json.jackson.example.Bean;
+import org.apache.fulcrum.json.jackson.example.Rectangle;
+import org.apache.fulcrum.json.jackson.example.TestClass;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+/**
+ * Filtered serialization by concurrent threads sharing one service, which
+ * shows the contention on the shared filter caches and their locks. The
+ * threads either filter the same class or, by thread index, different classes
+ * (parameter <code>filterClasses</code>). Throughput and the sampled latency
+ * percentiles are reported.
+ *
+ * The 4 threads of the annotation are a default only. Run another thread
+ * count with the JMH options, e.g.
+ * <code>FilterContentionBenchmark -t 16 -prof gc</code>, or a series of thread
+ * counts (default 1 to 64) with the GC profiler by {@link #main(String[])}:
+ *
+ * <pre>
+ * java -cp benchmarks/target/benchmarks.jar org.apache.fulcrum.json.benchmarks.FilterContentionBenchmark [threads...]
+ * </pre>
+ *
+ * @author gk
+ * @version $Id$
+ */
+@BenchmarkMode({ Mode.Throughput, Mode.SampleTime })
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Threads(4)
+@Fork(1)
+public class FilterContentionBenchmark {
+
+    private static final int[] THREADS = { 1, 2, 4, 8, 16, 32, 64 };
+
+    /**
+     * The filtered object and filter of a thread.
+     */
+    @State(Scope.Thread)
+    public static class Workload {
+
+        public static final String SAME = "same";
+        public static final String DIFFERENT = "different";
+
+        @Param({ SAME, DIFFERENT })
+        public String filterClasses;
+
+        Object src;
+        Class<?> filterClass;
+        String[] onlyAttrs;
+        String[] exceptAttrs;
+
+        @Setup
+        public void setUp(ServiceState state, ThreadParams threads) {
+            int kind = SAME.equals(filterClasses) ? 0 : threads.getThreadIndex() % 3;
+            switch (kind) {
+            case 0:
+                set(state, state.beans, Bean.class, new String[] { "name" }, new String[] { "age", "profession" });
+                break;
+            case 1:
+                set(state, state.rectangles, Rectangle.class, new String[] { "w" }, new String[] { "name" });
+                break;
+            default:
+                set(state, state.testClass, TestClass.class, new String[] { "name" }, new String[] { "container" });
+                break;
+            }
+        }
+
+        /**
+         * Gson serializes only the filter class, so the objects are filtered by
+         * the attribute names only, see {@link ServiceState#filterClass}.
+         */
+        private void set(ServiceState state, Object src, Class<?> filterClass, String[] onlyAttrs,
+                String[] exceptAttrs) {
+            this.src = src;
+            this.filterClass = ServiceState.JACKSON2.equals(state.backend) ? filterClass : null;
+            this.onlyAttrs = onlyAttrs;
+            this.exceptAttrs = exceptAttrs;
+        }
+    }
+
+    @Benchmark
+    public String serializeOnlyFilter(ServiceState state, Workload workload) throws Exception {
+        return state.service.serializeOnlyFilter(workload.src, workload.filterClass, workload.onlyAttrs);
+    }
+
+    @Benchmark
+    public String serializeAllExceptFilter(ServiceState state, Workload workload) throws Exception {
+        return state.service.serializeAllExceptFilter(workload.src, workload.filterClass, workload.exceptAttrs);
+    }
+
+    /**
+     * Half of the threads include, the other half exclude attributes of the
+     * same objects.
+     */
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public String mixedOnlyFilter(ServiceState state, Workload workload) throws Exception {
+        return state.service.serializeOnlyFilter(workload.src, workload.filterClass, workload.onlyAttrs);
+    }
+
+    @Benchmark
+    @Group("mixed")
+    @GroupThreads(2)
+    public String mixedAllExceptFilter(ServiceState state, Workload workload) throws Exception {
+        return state.service.serializeAllExceptFilter(workload.src, workload.filterClass, workload.exceptAttrs);
+    }
+
+    /**
+     * Runs the benchmarks with each thread count and the GC profiler, which
+     * reports the allocation rate.
+     *
+     * @param args the thread counts, by default 1, 2, 4, 8, 16, 32 and 64
+     * @throws RunnerException if a benchmark failed
+     */
+    public static void main(String[] args) throws RunnerException {
+        int[] counts = (args.length == 0) ? THREADS : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        for (int threads : counts) {
+            Options options = new OptionsBuilder()
+                    .include(FilterContentionBenchmark.class.getName())
+                    .threads(threads)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+}
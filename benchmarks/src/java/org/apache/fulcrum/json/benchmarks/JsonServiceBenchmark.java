@@ -0,0 +1,117 @@
+package org.apache.fulcrum.json.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.jackson.example.Bean;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Warmup;
+
+import com.jayway.jsonpath.JsonPath;
+
+/**
+ * Single threaded costs of the {@link JsonService} methods for each backend,
+ * see {@link ServiceState}. Run e.g. only the filter benchmarks of Jackson 2
+ * with
+ *
+ * <pre>
+ * java -jar benchmarks/target/benchmarks.jar JsonServiceBenchmark.serialize -p backend=jackson2
+ * </pre>
+ *
+ * @author gk
+ * @version $Id$
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class JsonServiceBenchmark {
+
+    @Benchmark
+    public String serBean(ServiceState state) throws Exception {
+        return state.service.ser(state.bean);
+    }
+
+    @Benchmark
+    public String serBeans(ServiceState state) throws Exception {
+        return state.service.ser(state.beans);
+    }
+
+    @Benchmark
+    public String serRectangles(ServiceState state) throws Exception {
+        return state.service.ser(state.rectangles);
+    }
+
+    @Benchmark
+    public String serTestClass(ServiceState state) throws Exception {
+        return state.service.ser(state.testClass);
+    }
+
+    @Benchmark
+    public Bean deSerBean(ServiceState state) throws Exception {
+        return state.service.deSer(state.beanJson, Bean.class);
+    }
+
+    @Benchmark
+    public Collection<Bean> deSerCollection(ServiceState state) throws Exception {
+        return state.service.deSerCollection(state.beansJson, state.beanCollectionType, Bean.class);
+    }
+
+    @Benchmark
+    public String serializeOnlyFilter(ServiceState state) throws Exception {
+        return state.service.serializeOnlyFilter(state.beans, state.filterClass, "name");
+    }
+
+    @Benchmark
+    public String serializeAllExceptFilter(ServiceState state) throws Exception {
+        return state.service.serializeAllExceptFilter(state.beans, state.filterClass, "age", "profession");
+    }
+
+    @Benchmark
+    public Bean convertWithFilter(ServiceState state) throws Exception {
+        return state.service.convertWithFilter(state.bean, Bean.class, "name");
+    }
+
+    /**
+     * JsonPath uses the JSON and mapping provider of the backend, which is set
+     * by the service at initialization.
+     */
+    @Benchmark
+    public String jsonPathRead(ServiceState state) {
+        return JsonPath.parse(state.testClassJson).read("$.container.cf", String.class);
+    }
+
+    /**
+     * The result is a node of the JSON provider, e.g. a Gson JsonArray.
+     */
+    @Benchmark
+    public Object jsonPathReadNames(ServiceState state) {
+        return JsonPath.parse(state.beansJson).read("$[*].name");
+    }
+}
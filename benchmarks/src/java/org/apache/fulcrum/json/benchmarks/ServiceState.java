@@ -0,0 +1,145 @@
+package org.apache.fulcrum.json.benchmarks;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.InputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+import org.apache.avalon.framework.configuration.Configuration;
+import org.apache.avalon.framework.configuration.DefaultConfigurationBuilder;
+import org.apache.avalon.framework.container.ContainerUtil;
+import org.apache.avalon.framework.logger.ConsoleLogger;
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.gson.GSONBuilderService;
+import org.apache.fulcrum.json.jackson.Jackson2MapperService;
+import org.apache.fulcrum.json.jackson.example.Bean;
+import org.apache.fulcrum.json.jackson.example.Rectangle;
+import org.apache.fulcrum.json.jackson.example.TestClass;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import com.google.gson.reflect.TypeToken;
+
+/**
+ * The service of the backend and the benchmark data, shared by all threads of
+ * a benchmark. The service is configured from <code>jackson2.xml</code> or
+ * <code>gson.xml</code> in this package, without a container.
+ *
+ * @author gk
+ * @version $Id$
+ */
+@State(Scope.Benchmark)
+public class ServiceState {
+
+    public static final String JACKSON2 = "jackson2";
+    public static final String GSON = "gson";
+
+    @Param({ JACKSON2, GSON })
+    public String backend;
+
+    /** number of beans and rectangles in the collections */
+    @Param({ "100" })
+    public int elements;
+
+    public JsonService service;
+
+    public Bean bean;
+    public List<Bean> beans;
+    public List<Rectangle> rectangles;
+    public TestClass testClass;
+
+    public String beanJson;
+    public String beansJson;
+    public String testClassJson;
+
+    /**
+     * the filter class of the bean list: Jackson 2 filters the properties of
+     * this class, Gson would skip all other classes including the list, so it
+     * filters by the field names only
+     */
+    public Class<Bean> filterClass;
+
+    /**
+     * the collection type argument of
+     * {@link JsonService#deSerCollection(String, Object, Class)}, which differs
+     * between the backends
+     */
+    public Object beanCollectionType;
+
+    @Setup
+    public void setUp() throws Exception {
+        service = createService(backend);
+
+        bean = bean(0);
+        beans = new ArrayList<>(elements);
+        rectangles = new ArrayList<>(elements);
+        for (int i = 0; i < elements; i++) {
+            beans.add(bean(i));
+            rectangles.add(new Rectangle(i, i * 2, "rect" + i));
+        }
+        testClass = new TestClass("benchmark");
+
+        beanJson = service.ser(bean);
+        beansJson = service.ser(beans);
+        testClassJson = service.ser(testClass);
+
+        filterClass = JACKSON2.equals(backend) ? Bean.class : null;
+        beanCollectionType = JACKSON2.equals(backend) ? new ArrayList<Bean>()
+                : new TypeToken<List<Bean>>() {
+                }.getType();
+    }
+
+    private static Bean bean(int i) {
+        Bean bean = new Bean();
+        bean.setName("joe" + i);
+        bean.setAge(i);
+        bean.setProfession("developer");
+        return bean;
+    }
+
+    /**
+     * Runs the Avalon lifecycle of the service, logging warnings to the console.
+     *
+     * @param backend {@link #JACKSON2} or {@link #GSON}
+     * @return the initialized service
+     * @throws Exception if the service could not be configured or initialized
+     */
+    public static JsonService createService(String backend) throws Exception {
+        JsonService service;
+        if (JACKSON2.equals(backend)) {
+            service = new Jackson2MapperService();
+        } else if (GSON.equals(backend)) {
+            service = new GSONBuilderService();
+        } else {
+            throw new IllegalArgumentException("Unknown backend " + backend);
+        }
+        Configuration conf;
+        try (InputStream in = ServiceState.class.getResourceAsStream(backend + ".xml")) {
+            conf = new DefaultConfigurationBuilder().build(in);
+        }
+        ContainerUtil.enableLogging(service, new ConsoleLogger(ConsoleLogger.LEVEL_WARN));
+        ContainerUtil.configure(service, conf);
+        ContainerUtil.initialize(service);
+        return service;
+    }
+}
@@ -22,8 +22,12 @@ package org.apache.fulcrum.json.gson;
 import java.io.IOException;
 import java.text.DateFormat;
 import java.text.ParseException;
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
 import java.util.Date;
 
+import org.apache.fulcrum.json.ImmutableDateFormat;
+
 import com.google.gson.Gson;
 import com.google.gson.JsonSyntaxException;
 import com.google.gson.TypeAdapter;
@@ -34,10 +38,14 @@ import com.google.gson.stream.JsonToken;
 import com.google.gson.stream.JsonWriter;
 
 /**
- * Adapter for Date. Although this class appears stateless, it is not.
- * DateFormat captures its time zone and locale when it is created, which gives
- * this class state. DateFormat isn't thread safe either, so this class has
- * to synchronize its read and write methods.
+ * Adapter for Date. The date format is kept as {@link ImmutableDateFormat},
+ * so reading and writing does not synchronize: numeric {@link SimpleDateFormat}
+ * patterns are formatted by an immutable {@link DateTimeFormatter}, all others
+ * and parsing use a copy of the date format per call.
+ *
+ * Optionally the last formatted second is cached, which avoids formatting
+ * payloads with many equal timestamps. The cache is used only for converted
+ * formats, which have no fractions of a second.
  */
 public final class DateTypeAdapter extends TypeAdapter<Date> {
   public static final TypeAdapterFactory FACTORY = new TypeAdapterFactory() {
@@ -47,18 +55,75 @@ public final class DateTypeAdapter extends TypeAdapter<Date> {
       return typeToken.getRawType() == Date.class ? (TypeAdapter<T>) new DateTypeAdapter() : null;
     }
   };
-  
-  // default 
-  private DateFormat customDateFormat = DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT);;
-  
+
+  /**
+   * The immutable state of the configured format.
+   */
+  private static final class Format {
+    final ImmutableDateFormat dateFormat;
+    final boolean cacheSeconds;
+
+    Format(DateFormat df, boolean cacheSeconds) {
+      this.dateFormat = ImmutableDateFormat.of(df);
+      this.cacheSeconds = cacheSeconds && dateFormat.isConverted();
+    }
+  }
+
+  /**
+   * The formatted text of one second.
+   */
+  private static final class FormattedSecond {
+    final Format format;
+    final long second;
+    final String text;
+
+    FormattedSecond(Format format, long second, String text) {
+      this.format = format;
+      this.second = second;
+      this.text = text;
+    }
+  }
+
+  // default
+  private volatile Format format = new Format(DateFormat.getDateTimeInstance(DateFormat.DEFAULT, DateFormat.DEFAULT), false);
+  private volatile boolean cacheSeconds = false;
+  private volatile FormattedSecond lastFormatted;
+
+  public DateTypeAdapter() {
+  }
+
+  /**
+   * @param df the date format
+   * @param cacheSeconds <code>true</code> to cache the last formatted second
+   */
+  public DateTypeAdapter(DateFormat df, boolean cacheSeconds) {
+    this.cacheSeconds = cacheSeconds;
+    setCustomDateFormat(df);
+  }
+
   public void setCustomDateFormat(DateFormat df) {
-      this.customDateFormat = df;
+      this.format = new Format(df, cacheSeconds);
   }
-  
+
+  /**
+   * @return a copy of the date format
+   */
   public DateFormat getCustomDateFormat() {
-      return customDateFormat;
+      return format.dateFormat.getDateFormat();
+  }
+
+  /**
+   * @param cacheSeconds <code>true</code> to cache the last formatted second,
+   *            ignored for formats not converted
+   */
+  public void setCacheSeconds(boolean cacheSeconds) {
+      this.cacheSeconds = cacheSeconds;
+      this.format = new Format(format.dateFormat.getDateFormat(), cacheSeconds);
   }
 
+  public boolean isCacheSeconds() {
+      return cacheSeconds;
+  }
 
   @Override public Date read(JsonReader in) throws IOException {
     if (in.peek() == JsonToken.NULL) {
@@ -68,22 +133,35 @@ public final class DateTypeAdapter extends TypeAdapter<Date> {
     return deserializeToDate(in.nextString());
   }
 
-  private synchronized Date deserializeToDate(String json) {
+  private Date deserializeToDate(String json) {
     try {
-      return customDateFormat.parse(json);
+      return format.dateFormat.parse(json);
     } catch (ParseException e) {
       throw new JsonSyntaxException(json, e);
     }
   }
 
-  @Override public synchronized void write(JsonWriter out, Date value) throws IOException {
+  @Override public void write(JsonWriter out, Date value) throws IOException {
     if (value == null) {
       out.nullValue();
       return;
     }
-    String dateFormatAsString = customDateFormat.format(value);
-    out.value(dateFormatAsString);
+    out.value(format(value));
   }
 
-}
+  private String format(Date value) {
+    Format current = format;
+    if (!current.cacheSeconds) {
+      return current.dateFormat.format(value);
+    }
+    long second = Math.floorDiv(value.getTime(), 1000L);
+    FormattedSecond last = lastFormatted;
+    if (last != null && last.second == second && last.format == current) {
+      return last.text;
+    }
+    String text = current.dateFormat.format(value);
+    lastFormatted = new FormattedSecond(current, second, text);
+    return text;
+  }
 
+}
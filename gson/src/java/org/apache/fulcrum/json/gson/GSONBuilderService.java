@@ -19,31 +19,62 @@
  * under the License.
  */
 
+import java.io.BufferedReader;
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Reader;
+import java.io.StringReader;
+import java.io.Writer;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
 import java.util.Date;
 import java.util.EnumSet;
 import java.util.Enumeration;
+import java.util.HashMap;
 import java.util.HashSet;
 import java.util.Hashtable;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Objects;
 import java.util.Set;
 import java.util.concurrent.Callable;
+import java.util.function.Consumer;
+import java.util.stream.Stream;
 
 import org.apache.avalon.framework.activity.Initializable;
 import org.apache.avalon.framework.configuration.Configurable;
 import org.apache.avalon.framework.configuration.Configuration;
 import org.apache.avalon.framework.configuration.ConfigurationException;
 import org.apache.avalon.framework.logger.AbstractLogEnabled;
+import org.apache.fulcrum.json.FilterCache;
 import org.apache.fulcrum.json.JsonService;
 
 import com.google.gson.ExclusionStrategy;
 import com.google.gson.FieldAttributes;
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.JsonIOException;
+import com.google.gson.JsonSyntaxException;
+import com.google.gson.Strictness;
+import com.google.gson.TypeAdapter;
 import com.google.gson.reflect.TypeToken;
+import com.google.gson.stream.JsonReader;
+import com.google.gson.stream.JsonToken;
+import com.google.gson.stream.JsonWriter;
 import com.jayway.jsonpath.Option;
 import com.jayway.jsonpath.spi.json.GsonJsonProvider;
 import com.jayway.jsonpath.spi.json.JsonProvider;
@@ -66,21 +97,195 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     private static final String GLOBAL_ADAPTERS = "globalAdapters";
 
     private static final String DATE_FORMAT = "dateFormat";
+
+    private static final String CACHE_SECONDS = "cacheSeconds";
     
     private static final String USEJSONPATH = "useJsonPath";
 
+    private static final String WARMUP = "warmup";
+
+    private static final String FILTERS = "filters";
+
+    private static final String FILTER_CACHE = "filterCache";
+
     private String dateFormat;
 
+    private boolean dateCacheSeconds = false;
+
     private Hashtable<String, String> adapters = null;
 
     private boolean useJsonPath = false;
+
+    // resolved at initialization and after changes
+    private List<Type> warmupTypes = Collections.emptyList();
+
+    // named filter profiles, derived whenever the Gson instance is built
+    private Map<String, FilterKey> filterProfiles = Collections.emptyMap();
     
     GsonBuilder gson;
 
+    /**
+     * Default maximum number of filtered {@link Gson} instances kept per snapshot.
+     */
+    static final int MAX_FILTERS = 1000;
+
+    /**
+     * Default expiration in seconds of filtered {@link Gson} instances not accessed.
+     */
+    static final long FILTERS_EXPIRE_AFTER_ACCESS = 3600;
+
+    private int filterCacheSize = MAX_FILTERS;
+
+    private long filterCacheExpireAfterAccess = FILTERS_EXPIRE_AFTER_ACCESS;
+
+    /**
+     * Built from {@link #gson}, replaced as a whole if adapters or the date format change.
+     */
+    private volatile Snapshot snapshot;
+
+    /**
+     * The built {@link Gson} and the filtered instances derived from it.
+     */
+    private static final class Snapshot {
+        final Gson gson;
+        final FilterCache<FilterKey, Gson> filtered;
+        // the filter profiles by name, not evicted
+        final Map<String, Gson> profiles = new HashMap<>();
+
+        Snapshot(Gson gson, int maxFilters, long expireAfterAccessSeconds) {
+            this.gson = gson;
+            this.filtered = new FilterCache<>(maxFilters, expireAfterAccessSeconds);
+        }
+    }
+
+    /**
+     * Filter signature: the mode, the class and the attribute set.
+     */
+    private static final class FilterKey {
+        final boolean include;
+        final Class<?> filterClass;
+        final Set<String> attributes;
+
+        FilterKey(boolean include, Class<?> filterClass, String... filterAttrs) {
+            this.include = include;
+            this.filterClass = filterClass;
+            this.attributes = (filterAttrs != null) ? new HashSet<>(Arrays.asList(filterAttrs))
+                    : Collections.emptySet();
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(include, filterClass, attributes);
+        }
+
+        @Override
+        public boolean equals(Object obj) {
+            if (!(obj instanceof FilterKey)) {
+                return false;
+            }
+            FilterKey other = (FilterKey) obj;
+            return include == other.include && Objects.equals(filterClass, other.filterClass)
+                    && attributes.equals(other.attributes);
+        }
+    }
+
+    /**
+     * @return the shared {@link Gson}, which is immutable and could be used concurrently
+     */
+    Gson gson() {
+        return snapshot.gson;
+    }
+
+    /**
+     * Derives a {@link Gson} with the filter from the shared one, the builder is not changed.
+     * The instance is cached by the filter signature until adapters or the date format change,
+     * the least recently used and idle instances are evicted like the compiled filters of
+     * Jackson 2.
+     * 
+     * @param include <code>true</code> to serialize only the attributes, <code>false</code>
+     *            to serialize all except the attributes
+     * @param filterClass the class to be included or excluded, may be null
+     * @param filterAttrs the field names
+     * @return the filtered Gson
+     */
+    Gson filtered(boolean include, Class<?> filterClass, String... filterAttrs) {
+        Snapshot current = snapshot;
+        return current.filtered.get(new FilterKey(include, filterClass, filterAttrs),
+                key -> derive(current.gson, include, filterClass, filterAttrs));
+    }
+
+    private Gson derive(Gson built, boolean include, Class<?> filterClass, String... filterAttrs) {
+        return built.newBuilder()
+                .addSerializationExclusionStrategy(
+                        include ? include(filterClass, filterAttrs) : exclude(filterClass, filterAttrs))
+                .create();
+    }
+
+    /**
+     * Changes the builder and replaces the built {@link Gson} and its filtered instances.
+     * Calls in progress keep the previous instances, calls do not wait for a change.
+     * 
+     * @param change the change applied to the builder
+     */
+    private synchronized void update(Consumer<GsonBuilder> change) {
+        change.accept(gson);
+        snapshot = snapshot(gson.create());
+    }
+
+    /**
+     * @param built the Gson built from the builder
+     * @return the snapshot with the type adapters of the configured types resolved and the
+     *         filter profiles derived
+     */
+    private Snapshot snapshot(Gson built) {
+        Snapshot created = new Snapshot(warmup(built), filterCacheSize, filterCacheExpireAfterAccess);
+        filterProfiles.forEach((name, key) -> created.profiles.put(name,
+                derive(created.gson, key.include, key.filterClass, key.attributes.toArray(new String[0]))));
+        return created;
+    }
+
+    /**
+     * Creates the type adapters of the configured types, which are cached by the Gson instance.
+     * 
+     * @param built the Gson
+     * @return the Gson
+     */
+    private Gson warmup(Gson built) {
+        for (Type type : warmupTypes) {
+            try {
+                built.getAdapter(TypeToken.get(type));
+                getLogger().debug("warmed up " + type);
+            } catch (RuntimeException e) {
+                getLogger().warn("Error warming up " + type, e);
+            }
+        }
+        return built;
+    }
+
     @Override
     public String ser(Object src) throws Exception {
         getLogger().debug("ser" + src);
-        return gson.create().toJson(src);
+        return gson().toJson(src);
+    }
+
+    /**
+     * Writes the JSON as UTF-8 directly into the stream, which is flushed, but not closed.
+     */
+    @Override
+    public void ser(Object src, OutputStream out) throws Exception {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        ser(src, writer);
+        writer.flush();
+    }
+
+    /**
+     * Writes the JSON directly into the writer, which is flushed, but not closed.
+     */
+    @Override
+    public void ser(Object src, Writer writer) throws Exception {
+        getLogger().debug("ser" + src);
+        gson().toJson(src, writer);
+        writer.flush();
     }
 
     @Override
@@ -89,14 +294,57 @@ public class GSONBuilderService extends AbstractLogEnabled implements
 
         Type collectionType = new TypeToken<T>() {
         }.getType();
-        return gson.create().toJson(src, collectionType);
+        return gson().toJson(src, collectionType);
     }
 
     @Override
     public <T> T deSer(String json, Class<T> type) throws Exception {
         // TODO Auto-generated method stub
         getLogger().debug("deser:" + json);
-        return gson.create().fromJson(json, type);
+        return gson().fromJson(json, type);
+    }
+
+    /**
+     * Reads the bytes through an UTF-8 stream reader, they are not decoded into a string first.
+     */
+    @Override
+    public <T> T deSer(byte[] src, Class<T> type) throws Exception {
+        return deSer(new ByteArrayInputStream(src), type);
+    }
+
+    /**
+     * Reads the remaining bytes through an UTF-8 stream reader, the buffer position is advanced to its limit.
+     */
+    @Override
+    public <T> T deSer(ByteBuffer src, Class<T> type) throws Exception {
+        if (src.hasArray()) {
+            T result = deSer(new ByteArrayInputStream(src.array(),
+                    src.arrayOffset() + src.position(), src.remaining()), type);
+            src.position(src.limit());
+            return result;
+        }
+        return deSer(new InputStream() {
+            @Override
+            public int read() throws IOException {
+                return src.hasRemaining() ? src.get() & 0xFF : -1;
+            }
+
+            @Override
+            public int read(byte[] b, int off, int len) throws IOException {
+                if (!src.hasRemaining()) {
+                    return -1;
+                }
+                int count = Math.min(len, src.remaining());
+                src.get(b, off, count);
+                return count;
+            }
+        }, type);
+    }
+
+    private <T> T deSer(InputStream in, Class<T> type) throws IOException {
+        try (Reader reader = new InputStreamReader(in, StandardCharsets.UTF_8)) {
+            return gson().fromJson(reader, type);
+        }
     }
     
     @Override
@@ -104,33 +352,120 @@ public class GSONBuilderService extends AbstractLogEnabled implements
             Class<T> elementType) throws Exception {
         getLogger().debug("deser:" + json);
         getLogger().debug("collectionType:" + collectionType);
-        return  gson.create().fromJson(json, (Type)collectionType);
+        return  gson().fromJson(json, (Type)collectionType);
+    }
+
+    /**
+     * Reads the array elements one by one with a {@link JsonReader}.
+     */
+    @Override
+    public <T> Iterator<T> deSerIterator(InputStream src, Class<T> elementType) throws Exception {
+        Gson built = gson();
+        JsonReader reader = built.newJsonReader(new InputStreamReader(src, StandardCharsets.UTF_8));
+        reader.beginArray();
+        return new ElementIterator<T>(reader, built.getAdapter(elementType));
+    }
+
+    /**
+     * Writes the array element by element with one {@link JsonWriter}.
+     */
+    @Override
+    public <T> void ser(Iterator<T> src, Writer writer) throws Exception {
+        Gson built = gson();
+        JsonWriter jsonWriter = built.newJsonWriter(writer);
+        jsonWriter.beginArray();
+        while (src.hasNext()) {
+            T value = src.next();
+            if (value == null) {
+                jsonWriter.nullValue();
+            } else {
+                built.toJson(value, value.getClass(), jsonWriter);
+            }
+        }
+        jsonWriter.endArray();
+        jsonWriter.flush();
+    }
+
+    /**
+     * Writes all records with the same {@link Gson} instance.
+     */
+    @Override
+    public <T> void serJsonLines(Iterator<T> src, Writer writer) throws Exception {
+        Gson built = gson();
+        while (src.hasNext()) {
+            built.toJson(src.next(), writer);
+            writer.write('\n');
+        }
+        writer.flush();
+    }
+
+    /**
+     * Reads the records line by line with one {@link TypeAdapter}, each with a
+     * strict {@link JsonReader}. Reading all records as multiple top level values
+     * would require lenient parsing, which also accepts unquoted names, comments
+     * etc.
+     */
+    @Override
+    public <T> Stream<T> deSerJsonLines(InputStream src, Class<T> type) throws Exception {
+        Gson built = gson();
+        TypeAdapter<T> adapter = built.getAdapter(type);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(src, StandardCharsets.UTF_8));
+        return reader.lines().filter(line -> !line.trim().isEmpty()).map(line -> readRecord(built, adapter, line))
+                .onClose(() -> {
+                    try {
+                        reader.close();
+                    } catch (IOException e) {
+                        throw new JsonIOException(e);
+                    }
+                });
+    }
+
+    private static <T> T readRecord(Gson built, TypeAdapter<T> adapter, String line) {
+        try {
+            JsonReader reader = built.newJsonReader(new StringReader(line));
+            reader.setStrictness(Strictness.LEGACY_STRICT);
+            T record = adapter.read(reader);
+            // fails on trailing content
+            reader.peek();
+            return record;
+        } catch (IOException e) {
+            throw new JsonSyntaxException(e);
+        }
     }
 
     @Override
     public String serializeOnlyFilter(Object src, String... filterAttr)
             throws Exception {
-        return  gson
-                .addSerializationExclusionStrategy(
-                        include(null,filterAttr)).create().toJson(src);
+        return filtered(true, null, filterAttr).toJson(src);
     }
 
     @Override
     public String serializeOnlyFilter(Object src, Boolean notused,
             String... filterAttr) throws Exception {
-        return  gson
-                .addSerializationExclusionStrategy(
-                        include(null,filterAttr)).create().toJson(src);
+        return filtered(true, null, filterAttr).toJson(src);
     }
 
     @Override
     public <T> String serializeOnlyFilter(Object src, Class<T> filterClass,
             String... filterAttr) throws Exception {
-        return  gson
-        .addSerializationExclusionStrategy(
-                include(filterClass, filterAttr)).create().toJson(src);
+        return filtered(true, filterClass, filterAttr).toJson(src);
     }
     
+    @Override
+    public <T> void serializeOnlyFilter(Object src, OutputStream out, Class<T> filterClass,
+            String... filterAttr) throws Exception {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        serializeOnlyFilter(src, writer, filterClass, filterAttr);
+        writer.flush();
+    }
+
+    @Override
+    public <T> void serializeOnlyFilter(Object src, Writer writer, Class<T> filterClass,
+            String... filterAttr) throws Exception {
+        filtered(true, filterClass, filterAttr).toJson(src, writer);
+        writer.flush();
+    }
+
     @Override
     public <T> String serializeOnlyFilter(Object arg0, Class<T> arg1,
             Boolean arg2, String... arg3) throws Exception {
@@ -145,7 +480,7 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     @Override
     public JsonService addAdapter(String name, Class target, Object adapter)
             throws Exception {
-        gson.registerTypeAdapter(target, adapter);
+        update(builder -> builder.registerTypeAdapter(target, adapter));
         return this;
     }
 
@@ -158,18 +493,32 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     @Override
     public JsonService addAdapter(String name, Class target, Class adapter)
             throws Exception {
-        gson.registerTypeAdapter(target, adapter.getConstructor().newInstance());
+        Object instance = adapter.getConstructor().newInstance();
+        update(builder -> builder.registerTypeAdapter(target, instance));
         return null;
     }
 
     @Override
     public <T> String serializeAllExceptFilter(Object src,
             Class<T> filterClass, String... filterAttr) throws Exception {
-        return gson
-                .addSerializationExclusionStrategy(
-                        exclude(filterClass, filterAttr)).create().toJson(src);
+        return filtered(false, filterClass, filterAttr).toJson(src);
     }
     
+    @Override
+    public <T> void serializeAllExceptFilter(Object src, OutputStream out,
+            Class<T> filterClass, String... filterAttr) throws Exception {
+        Writer writer = new OutputStreamWriter(out, StandardCharsets.UTF_8);
+        serializeAllExceptFilter(src, writer, filterClass, filterAttr);
+        writer.flush();
+    }
+
+    @Override
+    public <T> void serializeAllExceptFilter(Object src, Writer writer,
+            Class<T> filterClass, String... filterAttr) throws Exception {
+        filtered(false, filterClass, filterAttr).toJson(src, writer);
+        writer.flush();
+    }
+
     @Override
     public <T> String serializeAllExceptFilter(Object src, Class<T> filterClass,
             Boolean clearCache, String... filterAttr) throws Exception {
@@ -179,19 +528,33 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     @Override
     public String serializeAllExceptFilter(Object src, String... filterAttr)
             throws Exception {
-        return gson
-                .addSerializationExclusionStrategy(
-                        exclude(null, filterAttr)).create().toJson(src);
+        return filtered(false, null, filterAttr).toJson(src);
     }
 
     @Override
     public String serializeAllExceptFilter(Object src, Boolean notused,
             String... filterAttr) throws Exception {
-        return gson
-                .addSerializationExclusionStrategy(
-                        exclude(null, filterAttr)).create().toJson(src);
+        return filtered(false, null, filterAttr).toJson(src);
     }
     
+    /**
+     * Serializes with the Gson of the profile, which is derived whenever the Gson instance is
+     * built and not evicted.
+     * 
+     * @param src the object to be serialized
+     * @param profileName the name of a filter profile configured in the
+     *            <code>filters</code> section
+     * @throws IllegalArgumentException if no such profile is configured
+     */
+    @Override
+    public String ser(Object src, String profileName) throws Exception {
+        Gson profile = snapshot.profiles.get(profileName);
+        if (profile == null) {
+            throw new IllegalArgumentException("no filter profile " + profileName);
+        }
+        return profile.toJson(src);
+    }
+
     @Override
     public String ser(Object src, Boolean refreshCache) throws Exception {
         throw new Exception("Not implemented!");
@@ -204,7 +567,7 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     }
 
     public JsonService registerTypeAdapter(Object serdeser, Type type) {
-        gson.registerTypeAdapter(type, serdeser);
+        update(builder -> builder.registerTypeAdapter(type, serdeser));
         return this;
     }
     
@@ -216,7 +579,7 @@ public class GSONBuilderService extends AbstractLogEnabled implements
      * @param dfStr date format string
      */
     public void setDateFormat(final String dfStr) {
-        gson.setDateFormat(dfStr);
+        update(builder -> builder.setDateFormat(dfStr));
     }
 
     /* (non-Javadoc)
@@ -224,9 +587,8 @@ public class GSONBuilderService extends AbstractLogEnabled implements
      */
     @Override
     public void setDateFormat(final DateFormat df) {
-        DateTypeAdapter dateTypeAdapter = new DateTypeAdapter();
-        dateTypeAdapter.setCustomDateFormat(df);
-        gson.registerTypeAdapter(Date.class,dateTypeAdapter);
+        DateTypeAdapter dateTypeAdapter = new DateTypeAdapter(df, dateCacheSeconds);
+        update(builder -> builder.registerTypeAdapter(Date.class,dateTypeAdapter));
     }
 
     public void getJsonService() throws InstantiationException {
@@ -247,6 +609,7 @@ public class GSONBuilderService extends AbstractLogEnabled implements
                 false);
         if (configuredDateFormat != null) {
             this.dateFormat = configuredDateFormat.getValue();// DEFAULTDATEFORMAT);
+            this.dateCacheSeconds = configuredDateFormat.getAttributeAsBoolean(CACHE_SECONDS, false);
         }
         final Configuration configuredAdapters = conf.getChild(GLOBAL_ADAPTERS,
                 true);
@@ -268,6 +631,87 @@ public class GSONBuilderService extends AbstractLogEnabled implements
         if (configuredjsonPath != null) {
             this.useJsonPath  = configuredjsonPath.getValueAsBoolean();
         }
+        final Configuration configuredWarmup = conf.getChild(WARMUP, false);
+        if (configuredWarmup != null) {
+            this.warmupTypes = configureWarmup(configuredWarmup.getChildren("class"));
+        }
+        final Configuration configuredFilterCache = conf.getChild(FILTER_CACHE, false);
+        if (configuredFilterCache != null) {
+            this.filterCacheSize = configuredFilterCache.getAttributeAsInteger("maxSize", filterCacheSize);
+            this.filterCacheExpireAfterAccess = configuredFilterCache.getAttributeAsLong("expireAfterAccess",
+                    filterCacheExpireAfterAccess);
+        }
+        final Configuration configuredFilters = conf.getChild(FILTERS, false);
+        if (configuredFilters != null) {
+            this.filterProfiles = configureFilterProfiles(configuredFilters.getChildren("filter"));
+        }
+    }
+
+    /**
+     * @param filters the filter elements with the attributes name, type
+     *            (<code>include</code> or <code>exclude</code>) and optionally class and the
+     *            comma separated field names as value
+     * @return the filter signatures by profile name
+     * @throws ConfigurationException if a class could not be loaded or the type is unknown
+     */
+    private Map<String, FilterKey> configureFilterProfiles(Configuration[] filters)
+            throws ConfigurationException {
+        Map<String, FilterKey> profiles = new LinkedHashMap<>();
+        for (Configuration filter : filters) {
+            String name = filter.getAttribute("name");
+            String className = filter.getAttribute("class", null);
+            String type = filter.getAttribute("type", "include");
+            Class<?> filterClass = null;
+            if (className != null) {
+                try {
+                    filterClass = Class.forName(className);
+                } catch (ClassNotFoundException e) {
+                    throw new ConfigurationException(
+                            "Error loading " + className + " for filter " + name, filter, e);
+                }
+            }
+            String[] attributes = Arrays.stream(filter.getValue("").split(",")).map(String::trim)
+                    .filter(attribute -> !attribute.isEmpty()).toArray(String[]::new);
+            if (!"include".equals(type) && !"exclude".equals(type)) {
+                throw new ConfigurationException("Unknown type " + type + " for filter " + name,
+                        filter);
+            }
+            getLogger().debug("configured filter profile " + name + ": " + type + " " + className + " "
+                    + Arrays.toString(attributes));
+            profiles.put(name, new FilterKey("include".equals(type), filterClass, attributes));
+        }
+        return Collections.unmodifiableMap(profiles);
+    }
+
+    /**
+     * @param classes the class elements with the class name as value and optionally the attribute
+     *            <code>collection</code>, the class name of a collection with elements of this class
+     * @return the types to be resolved at initialization
+     * @throws ConfigurationException if a class could not be loaded
+     */
+    private List<Type> configureWarmup(Configuration[] classes) throws ConfigurationException {
+        List<Type> types = new ArrayList<>(classes.length);
+        for (Configuration clazz : classes) {
+            String className = clazz.getValue();
+            String collectionName = clazz.getAttribute("collection", null);
+            try {
+                Class<?> type = Class.forName(className);
+                if (collectionName == null) {
+                    types.add(type);
+                } else {
+                    Class<?> collection = Class.forName(collectionName);
+                    if (!Collection.class.isAssignableFrom(collection)) {
+                        throw new ConfigurationException(
+                                "" + collectionName + " is not a collection", clazz);
+                    }
+                    types.add(TypeToken.getParameterized(collection, type).getType());
+                }
+            } catch (ClassNotFoundException e) {
+                throw new ConfigurationException("Error loading " + className + " for " + WARMUP,
+                        clazz, e);
+            }
+        }
+        return types;
     }
 
     /* (non-Javadoc)
@@ -276,6 +720,7 @@ public class GSONBuilderService extends AbstractLogEnabled implements
     @Override
     public void initialize() throws Exception {
         gson = new GsonBuilder();
+        snapshot = snapshot(gson.create());
         getLogger().debug("initialized: gson:" + gson);
         if (dateFormat != null) {
             getLogger().info("setting date format to: " + dateFormat);
@@ -300,7 +745,7 @@ public class GSONBuilderService extends AbstractLogEnabled implements
 
                     } catch (Exception e) {
                         throw new InstantiationException(
-                                "JsonMapperService: Error instantiating one of the adapters: "
+                                "Error instantiating one of the adapters: "
                                         + avClass + " for " + forClass);
                     }
                 }
@@ -314,11 +759,11 @@ public class GSONBuilderService extends AbstractLogEnabled implements
                 private Callable<Gson> gsonFuture = new Callable<Gson>() {
                     @Override
                     public Gson call() {
-                        return GSONBuilderService.this.gson.create();
+                        return GSONBuilderService.this.gson();
                     }
                 };
 
-                private final JsonProvider jsonProvider = new GsonJsonProvider(GSONBuilderService.this.gson.create());
+                private final JsonProvider jsonProvider = new GsonJsonProvider(GSONBuilderService.this.gson());
                 private final MappingProvider mappingProvider = new GsonMappingProvider(gsonFuture);
 
                 @Override
@@ -435,19 +880,65 @@ public class GSONBuilderService extends AbstractLogEnabled implements
         }.init(clazz, filterAttrs);
     }
 
+    /**
+     * Iterates over the elements of an already opened JSON array or over top level values
+     * and closes the reader after the last one.
+     */
+    private static final class ElementIterator<T> implements Iterator<T> {
+
+        private final JsonReader reader;
+        private final TypeAdapter<T> adapter;
+        private boolean closed = false;
+
+        ElementIterator(JsonReader reader, TypeAdapter<T> adapter) {
+            this.reader = reader;
+            this.adapter = adapter;
+        }
+
+        @Override
+        public boolean hasNext() {
+            if (closed) {
+                return false;
+            }
+            try {
+                if (reader.peek() != JsonToken.END_ARRAY) {
+                    return true;
+                }
+                reader.endArray();
+                closed = true;
+                reader.close();
+                return false;
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+
+        @Override
+        public T next() {
+            if (!hasNext()) {
+                throw new NoSuchElementException();
+            }
+            try {
+                return adapter.read(reader);
+            } catch (IOException e) {
+                throw new JsonIOException(e);
+            }
+        }
+    }
+
     @Override
     public <T> T convertWithFilter(Object src, Class<T> type, String... filterAttrs) throws Exception
     {
-        String json = serializeOnlyFilter(src, filterAttrs);
-        return deSer( json, type );
+        // the filtered tree is bound directly, no JSON string is written and parsed
+        Gson filtered = filtered(true, null, filterAttrs);
+        return filtered.fromJson( filtered.toJsonTree(src), type );
     }
 
     @SuppressWarnings("unchecked")
     @Override
     public <T> T convertWithFilter(Object src, String... filterAttrs) throws Exception
     {
-        String json = serializeOnlyFilter(src, filterAttrs);
-        return deSer( json, (Class<T>) src.getClass() );
+        return convertWithFilter( src, (Class<T>) src.getClass(), filterAttrs );
     }
 
 }
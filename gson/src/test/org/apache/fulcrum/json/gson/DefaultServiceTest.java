@@ -20,16 +20,28 @@ package org.apache.fulcrum.json.gson;
  */
 
 import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertNotSame;
+import static org.junit.Assert.assertSame;
 import static org.junit.Assert.assertTrue;
+import static org.junit.Assert.fail;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
 import java.lang.reflect.Type;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.stream.Stream;
 
 import org.apache.avalon.framework.activity.Initializable;
 import org.apache.fulcrum.json.JsonService;
@@ -39,6 +51,8 @@ import org.apache.fulcrum.testcontainer.BaseUnit4Test;
 import org.junit.Before;
 import org.junit.Test;
 
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
 import com.google.gson.reflect.TypeToken;
 
 /**
@@ -62,6 +76,16 @@ public class DefaultServiceTest extends BaseUnit4Test {
         assertEquals("Serialization failed ", preDefinedOutput, serJson);
     }
     @Test
+    public void testSerializeToStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.ser(new TestClass("mytest"), out);
+        assertEquals("Stream serialization failed ", preDefinedOutput,
+                out.toString(StandardCharsets.UTF_8.name()));
+        StringWriter writer = new StringWriter();
+        sc.ser(new TestClass("mytest"), writer);
+        assertEquals("Writer serialization failed ", preDefinedOutput, writer.toString());
+    }
+    @Test
     public void testSerializeExcludeNothing() throws Exception {
         String serJson = sc.serializeAllExceptFilter(new TestClass("mytest"),
                 (String[]) null);
@@ -119,6 +143,45 @@ public class DefaultServiceTest extends BaseUnit4Test {
                 serJson.matches("\\{\"date\":\"\\d\\d/\\d\\d/\\d{4}\"\\}"));
     }
     @Test
+    public void testDateTypeAdapter() throws Exception {
+        SimpleDateFormat format = new SimpleDateFormat("yyyy-MM-dd HH:mm:ss");
+        Date date = format.parse("2020-12-24 10:11:12");
+        DateTypeAdapter adapter = new DateTypeAdapter(format, true);
+        assertEquals("\"2020-12-24 10:11:12\"", adapter.toJson(date));
+        // same second
+        assertEquals("\"2020-12-24 10:11:12\"", adapter.toJson(new Date(date.getTime() + 500)));
+        assertEquals("\"2020-12-24 10:11:13\"", adapter.toJson(new Date(date.getTime() + 1000)));
+        assertEquals(date, adapter.fromJson("\"2020-12-24 10:11:12\""));
+        // missing time fields
+        SimpleDateFormat dateOnly = new SimpleDateFormat("MM/dd/yyyy");
+        assertEquals(dateOnly.parse("12/24/2020"),
+                new DateTypeAdapter(dateOnly, false).fromJson("\"12/24/2020\""));
+    }
+    @Test
+    public void testDateTypeAdapterLikeSimpleDateFormat() throws Exception {
+        // lenient parsing of single digits and trailing text
+        SimpleDateFormat dateOnly = new SimpleDateFormat("MM/dd/yyyy");
+        DateTypeAdapter adapter = new DateTypeAdapter(dateOnly, false);
+        assertEquals(dateOnly.parse("1/5/2020"), adapter.fromJson("\"1/5/2020\""));
+        assertEquals(dateOnly.parse("01/05/2020 10:00"), adapter.fromJson("\"01/05/2020 10:00\""));
+        // text fields in the locale of the format
+        SimpleDateFormat german = new SimpleDateFormat("dd. MMMM yyyy", Locale.GERMAN);
+        Date date = german.parse("05. M\u00e4rz 2020");
+        adapter = new DateTypeAdapter(german, true);
+        assertEquals("\"05. M\u00e4rz 2020\"", adapter.toJson(date));
+        assertEquals(date, adapter.fromJson("\"05. M\u00e4rz 2020\""));
+        // 12-hour fields with and without marker
+        SimpleDateFormat hours = new SimpleDateFormat("yyyy-MM-dd hh:mm a", Locale.US);
+        date = hours.parse("2020-01-05 03:30 PM");
+        adapter = new DateTypeAdapter(hours, false);
+        assertEquals("\"2020-01-05 03:30 PM\"", adapter.toJson(date));
+        assertEquals(date, adapter.fromJson("\"2020-01-05 03:30 PM\""));
+        SimpleDateFormat noMarker = new SimpleDateFormat("yyyy-MM-dd hh:mm");
+        adapter = new DateTypeAdapter(noMarker, false);
+        assertEquals(noMarker.parse("2020-01-05 11:30"), adapter.fromJson("\"2020-01-05 11:30\""));
+        assertEquals("\"" + noMarker.format(date) + "\"", adapter.toJson(date));
+    }
+    @Test
     // does not seerialize size
     public void testSerializeCollection() throws Exception {
         List<Rectangle> rectList = new ArrayList<Rectangle>();
@@ -173,6 +236,45 @@ public class DefaultServiceTest extends BaseUnit4Test {
         assertEquals("failed adapter serialization:",
                 "{\"container\":{\"cf\":\"Config.xml\"},\"configurationName\":\"Config.xml\",\"name\":\"mytest\"}", defaultSer);
     }
+    @Test
+    public void testBuiltGsonIsReused() throws Exception {
+        GSONBuilderService service = (GSONBuilderService) sc;
+        Gson built = service.gson();
+        sc.ser(new TestClass("mytest"));
+        sc.deSer(preDefinedOutput, TestClass.class);
+        assertSame("Gson rebuilt without change", built, service.gson());
+        sc.addAdapter("Test Adapter", TestClass.class, new TestJsonSerializer());
+        assertNotSame("Gson not rebuilt after adapter change", built, service.gson());
+        assertEquals("failed adapter serialization:",
+                "{\"n\":\"mytest\",\"p\":\"Config.xml\",\"c\":[]}", sc.ser(new TestClass("mytest")));
+    }
+    @Test
+    public void testFiltersDoNotAccumulate() throws Exception {
+        GSONBuilderService service = (GSONBuilderService) sc;
+        assertEquals("{\"configurationName\":\"Config.xml\"}",
+                sc.serializeOnlyFilter(new TestClass("mytest"), "configurationName"));
+        assertEquals("{\"name\":\"mytest\"}",
+                sc.serializeOnlyFilter(new TestClass("mytest"), "name"));
+        assertEquals("{\"container\":{\"cf\":\"Config.xml\"},\"name\":\"mytest\"}",
+                sc.serializeAllExceptFilter(new TestClass("mytest"), "configurationName"));
+        assertEquals("Filter leaked into unfiltered call", preDefinedOutput, sc.ser(new TestClass("mytest")));
+        assertSame("Filtered Gson not cached", service.filtered(true, null, "name", "w"),
+                service.filtered(true, null, "w", "name"));
+    }
+    @Test
+    public void testFilterProfiles() throws Exception {
+        assertEquals("{\"name\":\"mytest\"}", sc.ser(new TestClass("mytest"), "testName"));
+        assertEquals("{\"container\":{\"cf\":\"Config.xml\"},\"name\":\"mytest\"}",
+                sc.ser(new TestClass("mytest"), "testNoConfigurationName"));
+        sc.addAdapter("Test Adapter", Rectangle.class, new TypeAdapterForRectangle());
+        assertEquals("Profile lost after rebuild", "{\"name\":\"mytest\"}", sc.ser(new TestClass("mytest"), "testName"));
+        try {
+            sc.ser(new TestClass("mytest"), "unknown");
+            fail("Unknown profile not rejected");
+        } catch (IllegalArgumentException expected) {
+            // expected
+        }
+    }
     @Test 
     public void testDeSerialize() throws Exception {
         String serJson = sc.ser(new TestClass("mytest"));
@@ -180,6 +282,80 @@ public class DefaultServiceTest extends BaseUnit4Test {
         assertEquals("Serialization failed ", TestClass.class, deson.getClass());
     }
     @Test
+    public void testDeSerializeBytes() throws Exception {
+        byte[] serJson = sc.serToBytes(new TestClass("mytest"));
+        assertEquals("Serialization failed ", preDefinedOutput, new String(serJson, StandardCharsets.UTF_8));
+        TestClass deson = sc.deSer(serJson, TestClass.class);
+        assertEquals("Deserialization failed ", "mytest", deson.getName());
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        sc.serInto(new TestClass("mytest"), buffer);
+        buffer.flip();
+        deson = sc.deSer(buffer, TestClass.class);
+        assertEquals("Deserialization failed ", "mytest", deson.getName());
+    }
+    @Test
+    public void testDeserializationIterator() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 10; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        byte[] serColl = sc.serToBytes(rectList);
+        Iterator<Rectangle> iterator = sc.deSerIterator(new ByteArrayInputStream(serColl), Rectangle.class);
+        int i = 0;
+        while (iterator.hasNext()) {
+            assertEquals("Deserialization failed ", "rect" + i, iterator.next().getName());
+            i++;
+        }
+        assertEquals("Deserialization failed ", rectList.size(), i);
+        try (Stream<Rectangle> stream = sc.deSerStream(new ByteArrayInputStream(serColl), Rectangle.class)) {
+            assertEquals("Deserialization failed ", 10, stream.count());
+        }
+    }
+    @Test
+    public void testSerializeIterator() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 10; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.ser(rectList.stream(), out);
+        assertEquals("Serialization failed ", sc.ser(rectList), out.toString(StandardCharsets.UTF_8.name()));
+    }
+    @Test
+    public void testJsonLines() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 3; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.serJsonLines(rectList.stream(), out);
+        assertEquals("Serialization failed ",
+                "{'w':0,'h':0,'name':'rect0'}\n{'w':1,'h':1,'name':'rect1'}\n{'w':2,'h':2,'name':'rect2'}\n",
+                out.toString(StandardCharsets.UTF_8.name()).replace('"', '\''));
+        try (Stream<Rectangle> stream = sc.deSerJsonLines(new ByteArrayInputStream(out.toByteArray()), Rectangle.class)) {
+            assertEquals("Deserialization failed ", 3, stream.count());
+        }
+    }
+    @Test
+    public void testJsonLinesStrict() throws Exception {
+        String lines = "{\"w\":1,\"h\":2,\"name\":\"rect1\"}\n\n{\"w\":2,\"h\":3,\"name\":\"rect2\"}\n";
+        try (Stream<Rectangle> stream = sc.deSerJsonLines(
+                new ByteArrayInputStream(lines.getBytes(StandardCharsets.UTF_8)), Rectangle.class)) {
+            assertEquals("Blank line not skipped", 2, stream.count());
+        }
+        String[] malformed = { "{'w':1}", "{w:1}", "/* comment */{\"w\":1}", "{\"w\":1} trailing",
+                "{\"w\":1}{\"w\":2}" };
+        for (String line : malformed) {
+            try (Stream<Rectangle> stream = sc.deSerJsonLines(
+                    new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8)), Rectangle.class)) {
+                stream.count();
+                fail("Malformed record accepted: " + line);
+            } catch (JsonSyntaxException e) {
+                // expected
+            }
+        }
+    }
+    @Test
     public void testDeserializationCollection() throws Exception {
         List<Rectangle> rectList = new ArrayList<Rectangle>();
         for (int i = 0; i < 10; i++) {
@@ -253,6 +429,14 @@ public class DefaultServiceTest extends BaseUnit4Test {
         String rectangle = sc.serializeOnlyFilter(filteredRectangle);
         System.out.println( "rectangle"+ rectangle );
     }
+    @Test
+    public void testConvertWithFilter() throws Exception {
+        Rectangle rectangle = new Rectangle(5, 10, "jim");
+        Rectangle filteredRectangle = sc.convertWithFilter(rectangle, "w", "h");
+        assertEquals("Convert filtered Rectangle failed ", 5, filteredRectangle.getW());
+        assertEquals("Convert filtered Rectangle failed ", 10, filteredRectangle.getH());
+        assertEquals("Convert filtered Rectangle failed ", null, filteredRectangle.getName());
+    }
 
 
 
@@ -0,0 +1,165 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonToken;
+import com.fasterxml.jackson.core.async.ByteArrayFeeder;
+import com.fasterxml.jackson.core.async.ByteBufferFeeder;
+import com.fasterxml.jackson.core.async.NonBlockingInputFeeder;
+import com.fasterxml.jackson.core.io.JsonEOFException;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
+
+/**
+ * Deserializes JSON fed in chunks, e.g. as they arrive from a non blocking
+ * channel, using the Jackson non blocking parser. Each completed root level
+ * value (or each completed element of a root level array, if unwrapping is
+ * enabled) is bound and returned by the feed call, which completed it. Binary
+ * formats like Smile are fed as byte arrays, direct buffers are then copied.
+ *
+ * Instances are not thread safe, feed the chunks in order from one thread at a
+ * time.
+ *
+ * @param <T> class type of the deserialized objects
+ */
+public class AsyncDeserializer<T> implements Closeable {
+
+    private final JsonParser parser;
+    private final NonBlockingInputFeeder feeder;
+    private final ObjectReader reader;
+    private final boolean unwrapRootArray;
+
+    private TokenBuffer buffer;
+    private int depth = 0;
+    private boolean inRootArray = false;
+
+    /**
+     * @param parser          a parser created with
+     *                        {@link com.fasterxml.jackson.core.JsonFactory#createNonBlockingByteBufferParser()}
+     *                        or
+     *                        {@link com.fasterxml.jackson.core.JsonFactory#createNonBlockingByteArrayParser()}
+     * @param reader          the reader for the target type
+     * @param unwrapRootArray if <code>true</code> and the input is a JSON array,
+     *                        its elements are returned one by one
+     */
+    AsyncDeserializer(JsonParser parser, ObjectReader reader, boolean unwrapRootArray) {
+        this.parser = parser;
+        this.feeder = parser.getNonBlockingInputFeeder();
+        this.reader = reader;
+        this.unwrapRootArray = unwrapRootArray;
+    }
+
+    /**
+     * @param data   the chunk
+     * @param offset the start of the chunk in data
+     * @param len    the length of the chunk
+     * @return the objects completed by this chunk, may be empty
+     * @throws IOException if the JSON is invalid or binding fails
+     */
+    public List<T> feed(byte[] data, int offset, int len) throws IOException {
+        if (feeder instanceof ByteArrayFeeder) {
+            ((ByteArrayFeeder) feeder).feedInput(data, offset, offset + len);
+            return drain();
+        }
+        return feed(ByteBuffer.wrap(data, offset, len));
+    }
+
+    /**
+     * Consumes the remaining bytes of the chunk. The buffer may be reused by the
+     * caller after this method returns.
+     *
+     * @param chunk the chunk
+     * @return the objects completed by this chunk, may be empty
+     * @throws IOException if the JSON is invalid or binding fails
+     */
+    public List<T> feed(ByteBuffer chunk) throws IOException {
+        if (feeder instanceof ByteBufferFeeder) {
+            ((ByteBufferFeeder) feeder).feedInput(chunk);
+            return drain();
+        }
+        byte[] data = new byte[chunk.remaining()];
+        chunk.get(data);
+        return feed(data, 0, data.length);
+    }
+
+    /**
+     * Signals that no more input is available.
+     *
+     * @return the objects completed by the end of input, may be empty
+     * @throws IOException if the input ends within a value
+     */
+    public List<T> endOfInput() throws IOException {
+        feeder.endOfInput();
+        List<T> completed = drain();
+        if (buffer != null || inRootArray) {
+            throw new JsonEOFException(parser, null, "Unexpected end-of-input within a JSON value");
+        }
+        return completed;
+    }
+
+    private List<T> drain() throws IOException {
+        List<T> completed = null;
+        JsonToken token;
+        while ((token = parser.nextToken()) != null && token != JsonToken.NOT_AVAILABLE) {
+            if (depth == 0 && unwrapRootArray) {
+                if (!inRootArray && token == JsonToken.START_ARRAY) {
+                    inRootArray = true;
+                    continue;
+                }
+                if (inRootArray && token == JsonToken.END_ARRAY) {
+                    inRootArray = false;
+                    continue;
+                }
+            }
+            if (buffer == null) {
+                buffer = new TokenBuffer(parser);
+            }
+            buffer.copyCurrentEvent(parser);
+            if (token.isStructStart()) {
+                depth++;
+            } else if (token.isStructEnd()) {
+                depth--;
+            }
+            if (depth == 0) {
+                if (completed == null) {
+                    completed = new ArrayList<>();
+                }
+                try (JsonParser valueParser = buffer.asParser(reader)) {
+                    completed.add(reader.readValue(valueParser));
+                }
+                buffer = null;
+            }
+        }
+        return completed != null ? completed : Collections.emptyList();
+    }
+
+    @Override
+    public void close() throws IOException {
+        parser.close();
+    }
+}
@@ -21,72 +21,329 @@ package org.apache.fulcrum.json.jackson;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
 
 import org.apache.avalon.framework.logger.LogEnabled;
 import org.apache.avalon.framework.logger.Logger;
+import org.apache.fulcrum.json.FilterCache;
 
+import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.SerializationConfig;
 import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
-import com.fasterxml.jackson.databind.ser.FilterProvider;
-import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.ser.SerializerFactory;
 
 public class CacheService implements LogEnabled {
 
+    /**
+     * Default maximum number of compiled filters.
+     */
+    public static final int DEFAULT_MAX_SIZE = 1000;
+
+    /**
+     * Default expiration in seconds of compiled filters not accessed.
+     */
+    public static final long DEFAULT_EXPIRE_AFTER_ACCESS = 3600;
+
     AnnotationIntrospector primary;
-    Map<String, FilterProvider> filters =  new ConcurrentHashMap<>();
-    
+    // filters kept for unfiltered serializations by class name
+    private final FilterCache<String, ObjectWriter> filters;
+    private final int maxSize;
+    private final long expireAfterAccessSeconds;
+    // the writers and readers of the current mapper state, replaced as a whole
+    private volatile Writers writers;
+    private volatile Readers readers = new Readers(null);
+    // counts of the compiled filters of replaced writers
+    private final LongAdder retiredHits = new LongAdder();
+    private final LongAdder retiredMisses = new LongAdder();
+    private final LongAdder retiredEvictions = new LongAdder();
+    private final LongAdder fullFlushes = new LongAdder();
+
     private static Logger logger;
-    
+
+    /**
+     * The writers created from one serialization configuration and serializer
+     * factory of the mapper. They are replaced as a whole, if the mapper changed,
+     * so a writer created from a stale state is only put into replaced caches.
+     */
+    private static final class Writers {
+
+        private final SerializationConfig config;
+        private final SerializerFactory factory;
+        // compiled filters, the writers are immutable and could be shared between threads
+        private final FilterCache<FilterSignature, ObjectWriter> compiled;
+        // unfiltered writers of the shared mapper by view
+        private final Map<Class<?>, ObjectWriter> views = new ConcurrentHashMap<>();
+        // the unfiltered writer of the copy of the mapper, which all filters share
+        private volatile ObjectWriter filterWriter;
+
+        Writers(ObjectMapper mapper, int maxSize, long expireAfterAccessSeconds) {
+            this.config = (mapper != null) ? mapper.getSerializationConfig() : null;
+            this.factory = (mapper != null) ? mapper.getSerializerFactory() : null;
+            this.compiled = new FilterCache<>(maxSize, expireAfterAccessSeconds);
+        }
+
+        boolean isValid(ObjectMapper mapper) {
+            return config == mapper.getSerializationConfig() && factory == mapper.getSerializerFactory();
+        }
+    }
+
+    /**
+     * The readers created from one deserialization configuration and context of
+     * the mapper, replaced as a whole like {@link Writers}.
+     */
+    private static final class Readers {
+
+        private final DeserializationConfig config;
+        private final DeserializationContext context;
+        private final Map<Class<?>, ObjectReader> types = new ConcurrentHashMap<>();
+
+        Readers(ObjectMapper mapper) {
+            this.config = (mapper != null) ? mapper.getDeserializationConfig() : null;
+            this.context = (mapper != null) ? mapper.getDeserializationContext() : null;
+        }
+
+        boolean isValid(ObjectMapper mapper) {
+            return config == mapper.getDeserializationConfig() && context == mapper.getDeserializationContext();
+        }
+    }
+
     public CacheService(AnnotationIntrospector primary) {
+        this(primary, DEFAULT_MAX_SIZE, DEFAULT_EXPIRE_AFTER_ACCESS);
+    }
+
+    /**
+     * @param primary                  the primary introspector
+     * @param maxSize                  maximum number of compiled filters and of
+     *                                 kept filters
+     * @param expireAfterAccessSeconds compiled and kept filters not accessed for
+     *                                 this time are evicted, <code>0</code>
+     *                                 disables the expiration
+     */
+    public CacheService(AnnotationIntrospector primary, int maxSize, long expireAfterAccessSeconds) {
         this.primary = primary;
+        this.maxSize = maxSize;
+        this.expireAfterAccessSeconds = expireAfterAccessSeconds;
+        this.writers = new Writers(null, maxSize, expireAfterAccessSeconds);
+        this.filters = new FilterCache<>(maxSize, expireAfterAccessSeconds);
+    }
+
+    /**
+     * @param filterClass the class
+     * @return the writer kept for unfiltered serializations of the class or
+     *         <code>null</code>
+     */
+    ObjectWriter getFilter(Class<?> filterClass) {
+        return filters.isEmpty() ? null : filters.getIfPresent(filterClass.getName());
+    }
+
+    void putFilter(Class<?> filterClass, ObjectWriter writer) {
+        logger.debug("keeping filter: " + filterClass.getName());
+        filters.put(filterClass.getName(), writer);
     }
 
-    <T> void removeFilter(Class<T> filterClass, Boolean excludeType) {
+    <T> void removeFilter(Class<T> filterClass) {
         if (filterClass == null)
             return;
-        if (filters.containsKey(filterClass.getName())) {
+        if (filters.remove(filterClass.getName()) != null) {
             logger.debug("removing filter: " + filterClass.getName());
-            removeCustomIntrospectorWithExternalFilterId(filterClass, excludeType);
-            SimpleFilterProvider smpfilter = (SimpleFilterProvider) filters
-                    .get(filterClass.getName());
-            smpfilter.removeFilter(filterClass.getName());
-            filters.remove(filterClass.getName());
         }
     }
-    
-    <T> void removeCustomIntrospectorWithExternalFilterId(
-            Class<T> externalFilterId, Boolean excludeType) {
-        if (primary instanceof SimpleNameIntrospector && externalFilterId != null) {
-                ((SimpleNameIntrospector) primary)
-                        .removeFilteredClass(externalFilterId);
-                if (excludeType) {
-                    ((SimpleNameIntrospector) primary)
-                    .removeExternalFilterExcludeClass(externalFilterId);
+
+    /**
+     * @param mapper    the mapper, the writer is created from
+     * @param signature the filter signature
+     * @param compiler  creates the writer, if it is not yet cached
+     * @return the cached writer for the signature
+     */
+    ObjectWriter getWriter(ObjectMapper mapper, FilterSignature signature,
+            Function<FilterSignature, ObjectWriter> compiler) {
+        return writers(mapper).compiled.get(signature, compiler);
+    }
+
+    /**
+     * @param mapper  the shared mapper
+     * @param factory creates the filter mapper, if it is not yet created
+     * @return the unfiltered writer of the mapper shared by all filters, which
+     *         does not close the target
+     */
+    ObjectWriter getFilterWriter(ObjectMapper mapper, Supplier<ObjectMapper> factory) {
+        Writers current = writers(mapper);
+        ObjectWriter result = current.filterWriter;
+        if (result == null) {
+            // only one copy is published, the compiled writers share it
+            synchronized (current) {
+                result = current.filterWriter;
+                if (result == null) {
+                    result = factory.get().writer().without(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+                    current.filterWriter = result;
                 }
+            }
         }
+        return result;
     }
 
+    /**
+     * @param mapper the shared mapper
+     * @param view   the view class
+     * @return the cached writer of the mapper for the view, which does not close
+     *         the target
+     */
+    ObjectWriter getViewWriter(ObjectMapper mapper, Class<?> view) {
+        return writers(mapper).views.computeIfAbsent(view,
+                key -> mapper.writerWithView(key).without(JsonGenerator.Feature.AUTO_CLOSE_TARGET));
+    }
+
+    /**
+     * Readers capture the deserialization configuration and context of the
+     * mapper, they are dropped, if one of them was replaced, e.g. by setting a
+     * feature or registering a module.
+     * 
+     * @param mapper the shared mapper
+     * @param type   the target type
+     * @return the cached reader of the mapper for the type
+     */
+    ObjectReader getReader(ObjectMapper mapper, Class<?> type) {
+        Readers current = readers;
+        if (!current.isValid(mapper)) {
+            synchronized (this) {
+                current = readers;
+                if (!current.isValid(mapper)) {
+                    current = new Readers(mapper);
+                    readers = current;
+                }
+            }
+        }
+        return current.types.computeIfAbsent(type, mapper::readerFor);
+    }
+
+    /**
+     * The writers and the filter mapper capture the mapper configuration, they are
+     * dropped, if it was replaced.
+     * 
+     * @param mapper the shared mapper
+     * @return the writers of the current configuration
+     */
+    private Writers writers(ObjectMapper mapper) {
+        Writers current = writers;
+        if (!current.isValid(mapper)) {
+            synchronized (this) {
+                current = writers;
+                if (!current.isValid(mapper)) {
+                    current = replaceWriters(mapper);
+                }
+            }
+        }
+        return current;
+    }
+
+    // called with the lock held
+    private Writers replaceWriters(ObjectMapper mapper) {
+        Writers retired = writers;
+        retiredHits.add(retired.compiled.hitCount());
+        retiredMisses.add(retired.compiled.missCount());
+        retiredEvictions.add(retired.compiled.evictionCount());
+        Writers current = new Writers(mapper, maxSize, expireAfterAccessSeconds);
+        writers = current;
+        return current;
+    }
+
+    /**
+     * Drops the compiled filters, e.g. after mixins were changed.
+     */
+    void invalidate() {
+        synchronized (this) {
+            replaceWriters(null);
+            readers = new Readers(null);
+        }
+    }
+
+    /**
+     * Flushes all cached serializers of the mapper, which should be required
+     * only after configuration changes like mixins or modules.
+     * 
+     * @param mapper the mapper
+     */
     void cleanSerializerCache(ObjectMapper mapper) {
         if (mapper.getSerializerProvider() instanceof DefaultSerializerProvider) {
             int cachedSerProvs = ((DefaultSerializerProvider) mapper
                     .getSerializerProvider()).cachedSerializersCount();
             if (cachedSerProvs > 0) {
-//                getLogger()
-//                        .debug("flushing cachedSerializersCount:"
-//                                + cachedSerProvs);
+                logger.debug("flushing cachedSerializersCount:" + cachedSerProvs);
                 ((DefaultSerializerProvider) mapper.getSerializerProvider())
                         .flushCachedSerializers();
+                fullFlushes.increment();
             }
         }
     }
 
-    public Map<String, FilterProvider> getFilters() {
-        return filters;
+    /**
+     * Jackson does not flush deserializers, replaces the caches of the mapper by
+     * new ones of the same cache provider, which also drops the cached
+     * serializers and types.
+     * 
+     * @param mapper the mapper
+     */
+    void cleanDeserializerCache(ObjectMapper mapper) {
+        logger.debug("flushing deserializers");
+        mapper.setCacheProvider(mapper.getDeserializationConfig().getCacheProvider());
+    }
+
+    /**
+     * Drops the filter profiles of the class, i.e. its compiled filters, and the
+     * kept filter. The serializers of the filter mapper do not depend on a
+     * filter, the filter is resolved per call, so they are kept.
+     * 
+     * @param filterClass the filter class
+     */
+    void cleanSerializerCache(Class<?> filterClass) {
+        writers.compiled.removeIf(signature -> signature.getFilterClass() == filterClass);
+        removeFilter(filterClass);
+    }
+
+    /**
+     * @return the number of cached compiled filters
+     */
+    public int getFilterCacheSize() {
+        return writers.compiled.size();
+    }
+
+    /**
+     * @return the number of filtered serializations, which found the compiled
+     *         filter in the cache
+     */
+    public long getFilterCacheHitCount() {
+        return retiredHits.sum() + writers.compiled.hitCount();
+    }
+
+    /**
+     * @return the number of filtered serializations, which had to compile the
+     *         filter
+     */
+    public long getFilterCacheMissCount() {
+        return retiredMisses.sum() + writers.compiled.missCount();
+    }
+
+    /**
+     * @return the number of flushes of all cached serializers of the shared
+     *         mapper
+     */
+    public long getFullFlushCount() {
+        return fullFlushes.sum();
     }
 
-    public void setFilters(Map<String, FilterProvider> filters) {
-        this.filters = filters;
+    /**
+     * @return the number of compiled filters evicted by size or expiration
+     */
+    public long getFilterCacheEvictionCount() {
+        return retiredEvictions.sum() + writers.compiled.evictionCount();
     }
 
     @Override
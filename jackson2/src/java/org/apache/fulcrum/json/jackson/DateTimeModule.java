@@ -0,0 +1,195 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.text.DateFormat;
+import java.text.SimpleDateFormat;
+import java.time.format.DateTimeFormatter;
+import java.util.Date;
+
+import org.apache.fulcrum.json.ImmutableDateFormat;
+
+import com.fasterxml.jackson.annotation.JsonFormat;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.Version;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.BeanProperty;
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.JsonSerializer;
+import com.fasterxml.jackson.databind.SerializationConfig;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.ContextualSerializer;
+import com.fasterxml.jackson.databind.ser.Serializers;
+import com.fasterxml.jackson.databind.ser.std.DateSerializer;
+import com.fasterxml.jackson.databind.ser.std.StdScalarSerializer;
+
+/**
+ * Serializes {@link Date} values with an {@link ImmutableDateFormat} of the
+ * configured {@link SimpleDateFormat}, if its pattern is converted into an
+ * immutable {@link DateTimeFormatter}, instead of the date format of the
+ * mapper, which Jackson clones for each use. Recently rendered instants are
+ * cached. A time zone set on the mapper, which differs from the zone of the
+ * date format, is applied by the Jackson default serializer.
+ * 
+ * Only the class {@link Date} itself is handled, subclasses like
+ * <code>java.sql.Date</code> and <code>java.sql.Timestamp</code> keep their
+ * Jackson serializers. Properties with a {@link JsonFormat} annotation, date
+ * formats not converted and enabled
+ * {@link SerializationFeature#WRITE_DATES_AS_TIMESTAMPS} are handled by the
+ * Jackson default serializer. Dates are parsed by the date format of the
+ * mapper, which is lenient like {@link SimpleDateFormat}.
+ */
+public final class DateTimeModule extends SimpleModule {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final int CACHE_BITS = 8;
+
+    /**
+     * Number of cached rendered instants.
+     */
+    static final int CACHE_SIZE = 1 << CACHE_BITS;
+
+    /**
+     * The format and its rendered instants, replaced as a whole.
+     */
+    private static final class Format {
+        final ImmutableDateFormat dateFormat;
+        final String timeZoneId;
+        final Rendered[] rendered = new Rendered[CACHE_SIZE];
+
+        Format(ImmutableDateFormat dateFormat, String timeZoneId) {
+            this.dateFormat = dateFormat;
+            this.timeZoneId = timeZoneId;
+        }
+
+        String format(long millis) {
+            int index = ((int) (millis ^ (millis >>> 32)) * 0x9E3779B9) >>> (Integer.SIZE - CACHE_BITS);
+            Rendered cached = rendered[index];
+            if (cached != null && cached.millis == millis) {
+                return cached.text;
+            }
+            String text = dateFormat.format(millis);
+            // entries are immutable, a lost or stale update is only a miss
+            rendered[index] = new Rendered(millis, text);
+            return text;
+        }
+
+        /**
+         * @param config the configuration of the mapper
+         * @return <code>true</code>, if the mapper has no time zone or the zone
+         *         of the date format
+         */
+        boolean rendersIn(SerializationConfig config) {
+            return !config.hasExplicitTimeZone() || timeZoneId.equals(config.getTimeZone().getID());
+        }
+    }
+
+    private static final class Rendered {
+        final long millis;
+        final String text;
+
+        Rendered(long millis, String text) {
+            this.millis = millis;
+            this.text = text;
+        }
+    }
+
+    // null, if the date format could not be converted
+    private transient volatile Format format;
+
+    private final FormattedDateSerializer serializer = new FormattedDateSerializer(this);
+
+    /**
+     * @param df the date format, see {@link #setDateFormat(DateFormat)}
+     */
+    public DateTimeModule(DateFormat df) {
+        super(DateTimeModule.class.getSimpleName(), Version.unknownVersion());
+        setDateFormat(df);
+    }
+
+    /**
+     * Registers the serializer for the class {@link Date} only, a serializer
+     * added by {@link #addSerializer(Class, JsonSerializer)} would also apply to
+     * its subclasses.
+     */
+    @Override
+    public void setupModule(SetupContext context) {
+        super.setupModule(context);
+        context.addSerializers(new Serializers.Base() {
+            @Override
+            public JsonSerializer<?> findSerializer(SerializationConfig config, JavaType type,
+                    BeanDescription beanDesc) {
+                return type.hasRawClass(Date.class) ? serializer : null;
+            }
+        });
+    }
+
+    /**
+     * Replaces the format, also for already registered serializers.
+     * 
+     * @param df the date format
+     * @return <code>true</code>, if the format is converted, see
+     *         {@link ImmutableDateFormat#isConverted()}, otherwise the date
+     *         format of the mapper is used
+     */
+    public boolean setDateFormat(DateFormat df) {
+        ImmutableDateFormat converted = ImmutableDateFormat.of(df);
+        this.format = converted.isConverted() ? new Format(converted, df.getTimeZone().getID()) : null;
+        return converted.isConverted();
+    }
+
+    static final class FormattedDateSerializer extends StdScalarSerializer<Date> implements ContextualSerializer {
+
+        private static final long serialVersionUID = 1L;
+        private final DateTimeModule module;
+
+        FormattedDateSerializer(DateTimeModule module) {
+            super(Date.class);
+            this.module = module;
+        }
+
+        @Override
+        public JsonSerializer<?> createContextual(SerializerProvider prov, BeanProperty property)
+                throws JsonMappingException {
+            JsonFormat.Value annotated = findFormatOverrides(prov, property, handledType());
+            if (annotated != null && (annotated.hasPattern() || annotated.hasShape() || annotated.hasLocale()
+                    || annotated.hasTimeZone())) {
+                return DateSerializer.instance.createContextual(prov, property);
+            }
+            return this;
+        }
+
+        @Override
+        public void serialize(Date value, JsonGenerator gen, SerializerProvider provider) throws IOException {
+            Format current = module.format;
+            if (current == null || provider.isEnabled(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+                    || !current.rendersIn(provider.getConfig())) {
+                provider.defaultSerializeDateValue(value, gen);
+            } else {
+                gen.writeString(current.format(value.getTime()));
+            }
+        }
+    }
+}
@@ -0,0 +1,115 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashSet;
+import java.util.Objects;
+import java.util.Set;
+
+import org.apache.fulcrum.json.jackson.filters.PathPropertyFilter;
+
+/**
+ * Immutable key of a compiled filter: the filtered class, the attribute set,
+ * the mode (include only these attributes or exclude them) and optionally the
+ * types to be excluded. The order of the attributes and types does not matter.
+ * Attributes might be nested paths, see {@link PathPropertyFilter}.
+ */
+final class FilterSignature {
+
+    private final Class<?> filterClass;
+    private final Set<String> attributes;
+    private final boolean include;
+    private final Set<Class<?>> excludeTypes;
+    private final boolean paths;
+    private final int hash;
+
+    FilterSignature(Class<?> filterClass, boolean include, String[] attributes, Class<?>[] excludeTypes) {
+        this(filterClass, include, attributes, excludeTypes,
+                attributes != null && Arrays.stream(attributes).anyMatch(PathPropertyFilter::isPath));
+    }
+
+    private FilterSignature(Class<?> filterClass, boolean include, String[] attributes, Class<?>[] excludeTypes,
+            boolean paths) {
+        this.filterClass = filterClass;
+        this.include = include;
+        this.attributes = (attributes != null)
+                ? Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(attributes)))
+                : Collections.emptySet();
+        this.excludeTypes = (excludeTypes != null)
+                ? Collections.unmodifiableSet(new LinkedHashSet<>(Arrays.asList(excludeTypes)))
+                : Collections.emptySet();
+        this.paths = paths;
+        this.hash = Objects.hash(filterClass, include, this.attributes, this.excludeTypes, paths);
+    }
+
+    Class<?> getFilterClass() {
+        return filterClass;
+    }
+
+    Set<String> getAttributes() {
+        return attributes;
+    }
+
+    /**
+     * @return <code>true</code> if only the attributes are serialized,
+     *         <code>false</code> if all but the attributes are serialized
+     */
+    boolean isInclude() {
+        return include;
+    }
+
+    Set<Class<?>> getExcludeTypes() {
+        return excludeTypes;
+    }
+
+    /**
+     * @return <code>true</code> if any attribute is a nested path, which
+     *         requires filtering all nested classes
+     */
+    boolean hasPaths() {
+        return paths;
+    }
+
+    @Override
+    public int hashCode() {
+        return hash;
+    }
+
+    @Override
+    public boolean equals(Object obj) {
+        if (this == obj) {
+            return true;
+        }
+        if (!(obj instanceof FilterSignature)) {
+            return false;
+        }
+        FilterSignature other = (FilterSignature) obj;
+        return hash == other.hash && include == other.include && paths == other.paths && Objects.equals(filterClass, other.filterClass)
+                && attributes.equals(other.attributes) && excludeTypes.equals(other.excludeTypes);
+    }
+
+    @Override
+    public String toString() {
+        return "FilterSignature [filterClass=" + filterClass + ", include=" + include + ", attributes=" + attributes
+                + ", excludeTypes=" + excludeTypes + ", paths=" + paths + "]";
+    }
+}
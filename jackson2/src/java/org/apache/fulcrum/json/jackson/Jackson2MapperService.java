@@ -19,14 +19,24 @@ package org.apache.fulcrum.json.jackson;
  */
 
 import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.io.Writer;
+import java.nio.ByteBuffer;
+import java.nio.file.Path;
 import java.text.DateFormat;
 import java.text.SimpleDateFormat;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collection;
+import java.util.Collections;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
 import java.util.Map;
 import java.util.Map.Entry;
+import java.util.stream.Stream;
 
 import org.apache.avalon.framework.activity.Initializable;
 import org.apache.avalon.framework.configuration.Configurable;
@@ -37,8 +47,11 @@ import org.apache.avalon.framework.logger.LogEnabled;
 import org.apache.commons.lang3.StringUtils;
 import org.apache.fulcrum.json.JsonService;
 import org.apache.fulcrum.json.jackson.filters.CustomModuleWrapper;
+import org.apache.fulcrum.json.jackson.filters.ClassFilterProvider;
+import org.apache.fulcrum.json.jackson.filters.PathPropertyFilter;
 import org.apache.fulcrum.json.jackson.jsonpath.DefaultJsonPathWrapper;
 
+import com.fasterxml.jackson.core.JsonFactory;
 import com.fasterxml.jackson.core.JsonGenerator;
 import com.fasterxml.jackson.core.JsonParser;
 import com.fasterxml.jackson.core.JsonParser.Feature;
@@ -47,7 +60,9 @@ import com.fasterxml.jackson.core.SerializableString;
 import com.fasterxml.jackson.core.io.CharacterEscapes;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.DeserializationContext;
 import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.JavaType;
 import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.JsonSerializer;
 import com.fasterxml.jackson.databind.MapperFeature;
@@ -55,9 +70,11 @@ import com.fasterxml.jackson.databind.Module;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectMapper.DefaultTyping;
 import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
 import com.fasterxml.jackson.databind.SerializationFeature;
 import com.fasterxml.jackson.databind.SerializerProvider;
 import com.fasterxml.jackson.databind.cfg.ConfigFeature;
+import com.fasterxml.jackson.databind.deser.DefaultDeserializationContext;
 import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
 import com.fasterxml.jackson.databind.module.SimpleModule;
@@ -65,6 +82,8 @@ import com.fasterxml.jackson.databind.ser.FilterProvider;
 import com.fasterxml.jackson.databind.ser.PropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
+import com.fasterxml.jackson.databind.util.ByteBufferBackedInputStream;
+import com.fasterxml.jackson.databind.util.TokenBuffer;
 
 
 /**
@@ -97,6 +116,10 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     private static final String ESCAPE_CHARS = "escapeCharsGlobal";
     private static final String ESCAPE_CHAR_CLASS = "escapeCharsClass";
     private static final String USE_JSON_PATH = "useJsonPath";
+    private static final String JSON_FACTORY = "jsonFactory";
+    private static final String FILTER_CACHE = "filterCache";
+    private static final String FILTERS = "filters";
+    private static final String WARMUP = "warmup";
     ObjectMapper mapper;
     AnnotationIntrospector primary; // support default
     AnnotationIntrospector secondary;
@@ -108,6 +131,7 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     private Map<String, String> featureTypes = null;
 
     private String dateFormat;
+    private DateTimeModule dateTimeModule;
 
     /**
      * Default dateformat is <code>MM/dd/yyyy</code>, could be overwritten in
@@ -124,17 +148,195 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
                                                 // XSS payload by default
     private boolean useJsonPath = false;
     private String escapeCharsClass = null;
+    private String jsonFactoryClass = null;
+    private int filterCacheSize = CacheService.DEFAULT_MAX_SIZE;
+    private long filterCacheExpireAfterAccess = CacheService.DEFAULT_EXPIRE_AFTER_ACCESS;
+    private Map<String, FilterSignature> filterProfiles = Collections.emptyMap();
+    private volatile Map<String, ObjectWriter> filterProfileWriters = Collections.emptyMap();
+    // the writers of the filter profiles by name for the warmed up classes
+    private volatile Map<String, Map<Class<?>, ObjectWriter>> typedProfileWriters = Collections.emptyMap();
+    // the type or the collection class and its element type
+    private List<Class<?>[]> warmupTypes = Collections.emptyList();
+
+    /**
+     * Writes the value with the prepared {@link ObjectWriter} into some target,
+     * e.g. a string or a stream.
+     */
+    @FunctionalInterface
+    interface ValueWriter<R> {
+        R write(ObjectWriter writer, Object value) throws IOException;
+    }
+
+    private static final ValueWriter<String> AS_STRING = ObjectWriter::writeValueAsString;
+
+    /**
+     * @param out the target stream, which is flushed, but not closed, as the
+     *            writers of the service do not close their target
+     * @return value writer for the stream
+     */
+    private static ValueWriter<Void> into(OutputStream out) {
+        return (writer, value) -> {
+            writer.writeValue(out, value);
+            return null;
+        };
+    }
+
+    /**
+     * @param out the target writer, which is flushed, but not closed
+     * @return value writer for the writer
+     */
+    private static ValueWriter<Void> into(Writer out) {
+        return (writer, value) -> {
+            writer.writeValue(out, value);
+            return null;
+        };
+    }
 
     @Override
     public String ser(Object src) throws Exception {
         return ser(src, false);
     }
 
+    /**
+     * Writes the JSON directly into the stream without an intermediate string.
+     * 
+     * @see JsonService#ser(Object, OutputStream)
+     */
+    @Override
+    public void ser(Object src, OutputStream out) throws Exception {
+        ser(src, false, into(out));
+    }
+
+    /**
+     * Writes the JSON directly into the writer without an intermediate string.
+     * 
+     * @see JsonService#ser(Object, Writer)
+     */
+    @Override
+    public void ser(Object src, Writer out) throws Exception {
+        ser(src, false, into(out));
+    }
+
     @Override
     public <T> String ser(Object src, Class<T> type) throws Exception {
         return ser(src, type, false);
     }
 
+    /**
+     * Serializes with {@link ObjectWriter#writeValueAsBytes(Object)}, no string is
+     * built.
+     * 
+     * @see JsonService#serToBytes(Object)
+     */
+    @Override
+    public byte[] serToBytes(Object src) throws Exception {
+        return ser(src, false, ObjectWriter::writeValueAsBytes);
+    }
+
+    /**
+     * The elements are written with one generator, each element like
+     * {@link #ser(Object)} with the cached filter (if any) or the default view of
+     * its class.
+     * 
+     * @see JsonService#ser(Iterator, OutputStream)
+     */
+    @Override
+    public <T> void ser(Iterator<T> src, OutputStream out) throws Exception {
+        writeArray(src, cacheService.getViewWriter(mapper, Object.class).createGenerator(out));
+    }
+
+    /**
+     * @see #ser(Iterator, OutputStream)
+     */
+    @Override
+    public <T> void ser(Iterator<T> src, Writer out) throws Exception {
+        writeArray(src, cacheService.getViewWriter(mapper, Object.class).createGenerator(out));
+    }
+
+    private <T> void writeArray(Iterator<T> src, JsonGenerator generator) throws IOException {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        try {
+            ElementWriters writers = new ElementWriters();
+            generator.writeStartArray();
+            while (src.hasNext()) {
+                T value = src.next();
+                writers.forValue(value).writeValue(generator, value);
+            }
+            generator.writeEndArray();
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * All records are written with one generator, each record like
+     * {@link #ser(Object)}.
+     * 
+     * @throws UnsupportedOperationException if the configured factory writes a
+     *                                       binary format, e.g. Smile, which
+     *                                       could not be separated by newlines
+     * @see JsonService#serJsonLines(Iterator, OutputStream)
+     */
+    @Override
+    public <T> void serJsonLines(Iterator<T> src, OutputStream out) throws Exception {
+        writeJsonLines(src, textualFactory().createGenerator(out));
+    }
+
+    /**
+     * @see #serJsonLines(Iterator, OutputStream)
+     */
+    @Override
+    public <T> void serJsonLines(Iterator<T> src, Writer out) throws Exception {
+        writeJsonLines(src, textualFactory().createGenerator(out));
+    }
+
+    private JsonFactory textualFactory() {
+        JsonFactory factory = mapper.getFactory();
+        if (factory.canHandleBinaryNatively()) {
+            throw new UnsupportedOperationException("JsonMapperService: " + factory.getFormatName()
+                    + " (" + factory.getClass().getName() + ") is a binary format, it does not support JSON Lines");
+        }
+        return factory;
+    }
+
+    private <T> void writeJsonLines(Iterator<T> src, JsonGenerator generator) throws IOException {
+        generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        // records are separated by newlines only
+        generator.setRootValueSeparator(null);
+        try {
+            ElementWriters writers = new ElementWriters();
+            while (src.hasNext()) {
+                T value = src.next();
+                writers.forValue(value).writeValue(generator, value);
+                generator.writeRaw('\n');
+            }
+        } finally {
+            generator.close();
+        }
+    }
+
+    /**
+     * Resolves the writers of the elements of one call like
+     * {@link #ser(Object, Boolean)} does, once per element class, a cached filter
+     * for the class is applied.
+     */
+    private final class ElementWriters {
+
+        private final Map<Class<?>, ObjectWriter> writers = new HashMap<>();
+
+        ObjectWriter forValue(Object value) {
+            return writers.computeIfAbsent((value != null) ? value.getClass() : null, this::resolve);
+        }
+
+        private ObjectWriter resolve(Class<?> type) {
+            ObjectWriter writer = (type != null && isCacheFilters()) ? cacheService.getFilter(type) : null;
+            if (writer == null) {
+                writer = cacheService.getViewWriter(mapper, Object.class);
+            }
+            return writer.without(SerializationFeature.FLUSH_AFTER_WRITE_VALUE);
+        }
+    }
+
     public String ser(Object src, FilterProvider filter) throws Exception {
         return ser(src, filter, false);
     }
@@ -148,39 +350,96 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
      * @throws Exception exception
      */
     public String ser(Object src, FilterProvider filter, Boolean cleanCache) throws Exception {
-        String serResult = null;
+        return ser(src, filter, cleanCache, AS_STRING);
+    }
+
+    private <R> R ser(Object src, FilterProvider filter, Boolean cleanCache, ValueWriter<R> valueWriter)
+            throws Exception {
         if (src == null) {
             getLogger().info("no serializable object.");
-            return serResult;
+            return null;
         }
         if (filter == null) {
             getLogger().debug("ser class::" + src.getClass() + " without filter.");
-            return ser(src);
-        } else {
-            getLogger().debug("add filter for cache filter Class " + src.getClass().getName());
-            setCustomIntrospectorWithExternalFilterId(src.getClass(), null); // filter class
-            if (isCacheFilters()) {
-                cacheService.getFilters().put(src.getClass().getName(), filter);
-            }
+            return ser(src, false, valueWriter);
         }
         getLogger().debug("ser class::" + src.getClass() + " with filter " + filter);
-        mapper.setFilterProvider(filter);
-        String res = mapper.writer(filter).writeValueAsString(src);
+        ObjectWriter writer = cacheService.getFilterWriter(mapper, this::createFilterMapper)
+                .with(new ClassFilterProvider(src.getClass(), filter));
+        if (isCacheFilters()) {
+            cacheService.putFilter(src.getClass(), writer);
+        }
+        R res = valueWriter.write(writer, src);
         if (cleanCache) {
-            cacheService.cleanSerializerCache(mapper);
+            cacheService.cleanSerializerCache(src.getClass());
         }
         return res;
     }
 
     @Override
     public <T> T deSer(String json, Class<T> type) throws Exception {
-        ObjectReader reader = null;
-        if (type != null)
-            reader = mapper.readerFor(type);
-        else
-            reader = mapper.reader();
+        return reader(type).readValue(json);
+    }
+
+    /**
+     * Parses the bytes directly, they are not decoded into a string.
+     * 
+     * @see JsonService#deSer(byte[], Class)
+     */
+    @Override
+    public <T> T deSer(byte[] src, Class<T> type) throws Exception {
+        return reader(type).readValue(src);
+    }
+
+    /**
+     * Parses the backing array if available, otherwise reads the buffer as a
+     * stream.
+     * 
+     * @see JsonService#deSer(ByteBuffer, Class)
+     */
+    @Override
+    public <T> T deSer(ByteBuffer src, Class<T> type) throws Exception {
+        if (src.hasArray()) {
+            T result = reader(type).readValue(src.array(), src.arrayOffset() + src.position(), src.remaining());
+            src.position(src.limit());
+            return result;
+        }
+        return reader(type).readValue(new ByteBufferBackedInputStream(src));
+    }
+
+    /**
+     * Parses the file from memory mapped regions, the file is not read into a
+     * string or byte array.
+     * 
+     * @param src  the UTF-8 encoded JSON file
+     * @param type the target type
+     * @return the Java Object
+     * @throws Exception if the file could not be read or JSON deserialization fails
+     */
+    public <T> T deSer(Path src, Class<T> type) throws Exception {
+        try (InputStream in = new MappedFileInputStream(src)) {
+            return reader(type).readValue(in);
+        }
+    }
 
-        return reader.readValue(json);
+    /**
+     * Lazy variant of {@link #deSer(Path, Class)} for files containing a top-level
+     * array or root level values (JSON Lines). The file is closed, if the iterator
+     * is exhausted.
+     * 
+     * @param src         the UTF-8 encoded JSON file
+     * @param elementType the element type
+     * @return the lazy element iterator
+     * @throws Exception if the file could not be opened
+     * 
+     * @see #deSerIterator(InputStream, Class)
+     */
+    public <T> Iterator<T> deSerIterator(Path src, Class<T> elementType) throws Exception {
+        return deSerIterator(new MappedFileInputStream(src), elementType);
+    }
+
+    private ObjectReader reader(Class<?> type) {
+        return (type != null) ? cacheService.getReader(mapper, type) : mapper.reader();
     }
 
     /**
@@ -205,20 +464,25 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         return convertWithFilter(src, (Class<T>) src.getClass(), filterAttrs);
     }
     
+    /**
+     * The filtered object is written with the compiled filter into a
+     * {@link TokenBuffer} and bound from there, no JSON string is written and
+     * parsed.
+     * 
+     * @see JsonService#convertWithFilter(Object, Class, String...)
+     */
     @Override
     public <T> T convertWithFilter(Object src, Class<T> type, String... filterAttrs) throws Exception {
         if (filterAttrs != null && filterAttrs.length > 0 && !"".equals(filterAttrs[0])) {
-            PropertyFilter pf = SimpleBeanPropertyFilter.filterOutAllExcept(filterAttrs);
-            SimpleFilterProvider filter = null;
-            if (pf != null) {
-                filter = new SimpleFilterProvider();
-                filter.setDefaultFilter(pf);
-                getMapper().setFilterProvider( filter );
+            ObjectWriter writer = filterWriter(new FilterSignature(src.getClass(), true, filterAttrs, null));
+            try (TokenBuffer buffer = new TokenBuffer(mapper, false)) {
+                writer.writeValue(buffer, src);
+                try (JsonParser parser = buffer.asParser()) {
+                    T filteredObject = reader(type).readValue(parser);
+                    getLogger().debug( "filtered Object: " + filteredObject );
+                    return filteredObject;
+                }
             }
-            String json = ser( src, filter );
-            T filteredObject = (T) deSer( json, type );
-            getLogger().debug( "filtered Object: " + filteredObject );
-            return filteredObject;
         } else {
             return null;
         }
@@ -252,6 +516,7 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         } else {
             throw new ClassCastException("expecting module type " + Module.class);
         }
+        configurationChanged();
         return this;
     }
     
@@ -291,6 +556,66 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         }
     }
     
+    /**
+     * Returns a {@link com.fasterxml.jackson.databind.MappingIterator}, which
+     * binds one array element per call.
+     * 
+     * @see JsonService#deSerIterator(InputStream, Class)
+     */
+    @Override
+    public <T> Iterator<T> deSerIterator(InputStream src, Class<T> elementType) throws Exception {
+        return reader(elementType).readValues(src);
+    }
+
+    /**
+     * Creates a deserializer, which accepts the input in chunks and returns the
+     * objects as soon as they are complete. Root level values are returned, e.g.
+     * for JSON Lines input.
+     * 
+     * @param type the target type
+     * @return the non blocking deserializer, to be closed after use
+     * @throws IOException if the non blocking parser could not be created
+     * @throws UnsupportedOperationException if the configured factory does not
+     *                                       support non blocking parsing, e.g.
+     *                                       CBOR
+     */
+    public <T> AsyncDeserializer<T> deSerAsync(Class<T> type) throws IOException {
+        return deSerAsync(type, false);
+    }
+
+    /**
+     * @param type            the target type
+     * @param unwrapRootArray if <code>true</code> the elements of a root level
+     *                        array are returned one by one
+     * @return the non blocking deserializer, to be closed after use
+     * @throws IOException if the non blocking parser could not be created
+     * 
+     * @see #deSerAsync(Class)
+     */
+    public <T> AsyncDeserializer<T> deSerAsync(Class<T> type, boolean unwrapRootArray) throws IOException {
+        JsonFactory factory = mapper.getFactory();
+        if (!factory.canParseAsync()) {
+            throw new UnsupportedOperationException("JsonMapperService: " + factory.getFormatName()
+                    + " (" + factory.getClass().getName() + ") does not support non blocking parsing");
+        }
+        // binary formats like Smile support only byte array feeding
+        JsonParser parser = JsonFactory.FORMAT_NAME_JSON.equals(factory.getFormatName())
+                ? factory.createNonBlockingByteBufferParser()
+                : factory.createNonBlockingByteArrayParser();
+        return new AsyncDeserializer<>(parser, reader(type), unwrapRootArray);
+    }
+
+    /**
+     * A {@link com.fasterxml.jackson.databind.MappingIterator} reads root level
+     * values in sequence, so one reader is used for all records.
+     * 
+     * @see JsonService#deSerJsonLines(InputStream, Class)
+     */
+    @Override
+    public <T> Stream<T> deSerJsonLines(InputStream src, Class<T> type) throws Exception {
+        return deSerStream(src, type);
+    }
+
     /**
      * 
      * @param src the collection to be serialized 
@@ -303,7 +628,7 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
                                                      Boolean cleanCache) throws JsonProcessingException {
          String res = mapper.writerFor(collectionType).writeValueAsString(src);
          if (cleanCache) {
-             cacheService.cleanSerializerCache(mapper);
+             cacheService.cleanSerializerCache(src.getClass());
          }
          return res;
      }
@@ -321,6 +646,7 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         getLogger().debug(
                 "registering unversioned simple mixin module named " + name + " of type " + mixin + "  for: " + target);
         mapper.addMixIn(target, mixin);
+        configurationChanged();
         return this;
     }
 
@@ -339,7 +665,9 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     public String withMixinModule(Object src, String name, Class target, Class mixin) throws JsonProcessingException {
         Module mx = new MixinModule(name, target, mixin);
         getLogger().debug("registering module " + mx + ", mixin: " + mixin);
-        return mapper.registerModule(mx).writer().writeValueAsString(src);
+        mapper.registerModule(mx);
+        configurationChanged();
+        return mapper.writer().writeValueAsString(src);
     }
 
     /**
@@ -370,7 +698,9 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
             sourceMixins.put(target, mixin);
         }
         getLogger().debug("complete reset mixins for target " + target + ", mixin: " + mixin);
-        return mapper.setMixIns(sourceMixins);
+        mapper.setMixIns(sourceMixins);
+        configurationChanged();
+        return mapper;
     }
 
     @Override
@@ -379,18 +709,18 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     }
 
     @Override
-    public synchronized String serializeAllExceptFilter(Object src, Boolean cache, String... filterAttr)
+    public String serializeAllExceptFilter(Object src, Boolean cache, String... filterAttr)
             throws Exception {
         return serializeAllExceptFilter(src, src.getClass(), cache, filterAttr);
     }
 
-    public synchronized <T> String serializeAllExceptFilter(Object src, Class<T>[] filterClasses, String... filterAttr)
+    public <T> String serializeAllExceptFilter(Object src, Class<T>[] filterClasses, String... filterAttr)
             throws Exception {
         return serializeAllExceptFilter(src, filterClasses, true, filterAttr);
     }
 
     @Override
-    public synchronized <T> String serializeAllExceptFilter(Object src, Class<T> filterClass, String... filterAttr)
+    public <T> String serializeAllExceptFilter(Object src, Class<T> filterClass, String... filterAttr)
             throws Exception {
         return serializeAllExceptFilter(src, filterClass, true, filterAttr);
     }
@@ -412,18 +742,40 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
      * @return the serailized string
      * @throws Exception generic exception
      */
-    public synchronized <T> String serializeAllExceptFilter(Object src, Class<T>[] filterClasses, Boolean clean,
+    public <T> String serializeAllExceptFilter(Object src, Class<T>[] filterClasses, Boolean clean,
             String... filterAttr) throws Exception {
-        PropertyFilter pf = null;
-        if (filterAttr != null)
-            pf = SimpleBeanPropertyFilter.serializeAllExcept(filterAttr);
-        else if (filterClasses == null) { // no filter
-            return ser(src, clean);
-            // should be better:
-            // return filter(src, new Class<?>[] { src.getClass() }, filterClasses, pf,
-            // clean);
+        return writeAllExceptFilter(src, filterClasses, clean, AS_STRING, filterAttr);
+    }
+
+    /**
+     * Writes the JSON directly into the stream without an intermediate string.
+     * 
+     * @see #serializeAllExceptFilter(Object, Class, String...)
+     */
+    @Override
+    public <T> void serializeAllExceptFilter(Object src, OutputStream out, Class<T> filterClass,
+            String... filterAttr) throws Exception {
+        writeAllExceptFilter(src, new Class[] { filterClass }, true, into(out), filterAttr);
+    }
+
+    /**
+     * Writes the JSON directly into the writer without an intermediate string.
+     * 
+     * @see #serializeAllExceptFilter(Object, Class, String...)
+     */
+    @Override
+    public <T> void serializeAllExceptFilter(Object src, Writer out, Class<T> filterClass, String... filterAttr)
+            throws Exception {
+        writeAllExceptFilter(src, new Class[] { filterClass }, true, into(out), filterAttr);
+    }
+
+    private <T, R> R writeAllExceptFilter(Object src, Class<T>[] filterClasses, Boolean clean,
+            ValueWriter<R> valueWriter, String... filterAttr) throws Exception {
+        if (filterAttr == null && filterClasses == null) { // no filter
+            return ser(src, clean, valueWriter);
         }
-        return filter(src, new Class<?>[] { filterClasses[0] }, filterClasses, pf, clean);
+        return filter(src, new FilterSignature(filterClasses[0], false, filterAttr, filterClasses), clean,
+                valueWriter);
     }
 
     @Override
@@ -432,49 +784,139 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     }
 
     @Override
-    public synchronized String serializeOnlyFilter(Object src, Boolean cache, String... filterAttr) throws Exception {
+    public String serializeOnlyFilter(Object src, Boolean cache, String... filterAttr) throws Exception {
         return serializeOnlyFilter(src, src.getClass(), cache, filterAttr);
     }
 
     @Override
-    public synchronized <T> String serializeOnlyFilter(Object src, Class<T> filterClass, String... filterAttr)
+    public <T> String serializeOnlyFilter(Object src, Class<T> filterClass, String... filterAttr)
             throws Exception {
         return serializeOnlyFilter(src, filterClass, true, filterAttr);
     }
 
     @Override
-    public synchronized <T> String serializeOnlyFilter(Object src, Class<T> filterClass, Boolean refresh,
+    public <T> String serializeOnlyFilter(Object src, Class<T> filterClass, Boolean refresh,
             String... filterAttr) throws Exception {
         return serializeOnlyFilter(src, new Class[] { filterClass }, refresh, filterAttr);
     }
 
-    public synchronized <T> String serializeOnlyFilter(Object src, Class<T>[] filterClasses, Boolean refresh,
+    public <T> String serializeOnlyFilter(Object src, Class<T>[] filterClasses, Boolean refresh,
             String... filterAttr) throws Exception {
-        PropertyFilter pf = null;
+        return writeOnlyFilter(src, filterClasses, refresh, AS_STRING, filterAttr);
+    }
+
+    /**
+     * Writes the JSON directly into the stream without an intermediate string.
+     * 
+     * @see #serializeOnlyFilter(Object, Class, String...)
+     */
+    @Override
+    public <T> void serializeOnlyFilter(Object src, OutputStream out, Class<T> filterClass, String... filterAttr)
+            throws Exception {
+        writeOnlyFilter(src, new Class[] { filterClass }, true, into(out), filterAttr);
+    }
+
+    /**
+     * Writes the JSON directly into the writer without an intermediate string.
+     * 
+     * @see #serializeOnlyFilter(Object, Class, String...)
+     */
+    @Override
+    public <T> void serializeOnlyFilter(Object src, Writer out, Class<T> filterClass, String... filterAttr)
+            throws Exception {
+        writeOnlyFilter(src, new Class[] { filterClass }, true, into(out), filterAttr);
+    }
+
+    private <T, R> R writeOnlyFilter(Object src, Class<T>[] filterClasses, Boolean refresh,
+            ValueWriter<R> valueWriter, String... filterAttr) throws Exception {
         if (filterAttr != null && filterAttr.length > 0 && !"".equals(filterAttr[0])) {
-            pf = SimpleBeanPropertyFilter.filterOutAllExcept(filterAttr);
             getLogger().debug("setting filteroutAllexcept filter for size of filterAttr: " + filterAttr.length);
         } else {
             getLogger().warn("no filter attributes set!");
-            pf = SimpleBeanPropertyFilter.filterOutAllExcept("dummy");
+            filterAttr = null;
         }
         if (filterClasses == null)
             throw new AssertionError("You have to provide some class to apply the filtering!");
-        return filter(src, filterClasses, null, pf, refresh);
+        return filter(src, new FilterSignature(filterClasses[0], true, filterAttr, null), refresh, valueWriter);
+    }
+
+    /**
+     * Provides the compiled filter as used by
+     * {@link #serializeOnlyFilter(Object, Class, String...)}. The writer is
+     * immutable and could be kept and used concurrently, e.g. by callers
+     * applying different attributes to the same class.
+     * 
+     * @param filterClass the filtered class, its parents and children
+     * @param filterAttrs the attributes to be serialized
+     * @param <T>         class type
+     * @return the writer serializing only the attributes of the filter class
+     */
+    public <T> ObjectWriter getOnlyFilterWriter(Class<T> filterClass, String... filterAttrs) {
+        return filterWriter(new FilterSignature(filterClass, true, filterAttrs, null));
+    }
+
+    /**
+     * Provides the compiled filter as used by
+     * {@link #serializeAllExceptFilter(Object, Class, String...)}, which also
+     * excludes properties of the type of the filter class. The writer is
+     * immutable and could be kept and used concurrently.
+     * 
+     * @param filterClass the filtered class, its parents and children
+     * @param filterAttrs the attributes not to be serialized
+     * @param <T>         class type
+     * @return the writer serializing all except the attributes of the filter
+     *         class
+     */
+    public <T> ObjectWriter getAllExceptFilterWriter(Class<T> filterClass, String... filterAttrs) {
+        return filterWriter(new FilterSignature(filterClass, false, filterAttrs, new Class<?>[] { filterClass }));
+    }
+
+    /**
+     * @param profileName the name of a filter profile configured in the
+     *                    <code>filters</code> section
+     * @return the writer of the profile, compiled at initialization
+     * @throws IllegalArgumentException if no such profile is configured
+     */
+    public ObjectWriter getFilterProfileWriter(String profileName) {
+        ObjectWriter writer = filterProfileWriters.get(profileName);
+        if (writer == null) {
+            throw new IllegalArgumentException("JsonMapperService: no filter profile " + profileName);
+        }
+        return writer;
+    }
+
+    /**
+     * Serializes with the writer of the profile, which neither looks up the
+     * filter cache nor keeps the filter for following calls.
+     * 
+     * @see JsonService#ser(Object, String)
+     */
+    @Override
+    public String ser(Object src, String profileName) throws Exception {
+        ObjectWriter writer = getFilterProfileWriter(profileName);
+        if (src == null) {
+            return null;
+        }
+        ObjectWriter typed = typedProfileWriters.getOrDefault(profileName, Collections.emptyMap()).get(src.getClass());
+        return ((typed != null) ? typed : writer).writeValueAsString(src);
     }
 
     @Override
     public String ser(Object src, Boolean cleanCache) throws Exception {
-        if (isCacheFilters() && cacheService.getFilters().containsKey(src.getClass().getName())) {
+        return ser(src, cleanCache, AS_STRING);
+    }
+
+    private <R> R ser(Object src, Boolean cleanCache, ValueWriter<R> valueWriter) throws Exception {
+        ObjectWriter writer = isCacheFilters() ? cacheService.getFilter(src.getClass()) : null;
+        if (writer != null) {
             getLogger().warn("Found registered filter - using instead of default view filter for class:"
                     + src.getClass().getName());
-            SimpleFilterProvider filter = (SimpleFilterProvider) cacheService.getFilters()
-                    .get(src.getClass().getName());
-            return ser(src, filter, cleanCache);// mapper.writerWithView(src.getClass()).writeValueAsString(src);
+        } else {
+            writer = cacheService.getViewWriter(mapper, Object.class);
         }
-        String res = mapper.writerWithView(Object.class).writeValueAsString(src);
+        R res = valueWriter.write(writer, src);
         if (cleanCache != null && cleanCache) {
-            cacheService.cleanSerializerCache(mapper);
+            cacheService.cleanSerializerCache(src.getClass());
         }
         return res;
     }
@@ -482,111 +924,188 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     @Override
     public <T> String ser(Object src, Class<T> type, Boolean cleanCache) throws Exception {
         getLogger().info("serializing object:" + src + " for type " + type);
-        if (isCacheFilters() && src != null && cacheService.getFilters().containsKey(src.getClass().getName())) {
+        ObjectWriter filtered = (isCacheFilters() && src != null) ? cacheService.getFilter(src.getClass()) : null;
+        if (filtered != null) {
             getLogger().warn("Found registered filter - could not use custom view and custom filter for class:"
                     + src.getClass().getName());
             // throw new
             // Exception("Found registered filter - could not use custom view and custom
             // filter for class:"+
             // src.getClass().getName());
-            SimpleFilterProvider filter = (SimpleFilterProvider) cacheService.getFilters()
-                    .get(src.getClass().getName());
-            return ser(src, filter);
+            return filtered.writeValueAsString(src);
         }
 
-        String res = (type != null) ? mapper.writerWithView(type).writeValueAsString(src)
+        String res = (type != null) ? cacheService.getViewWriter(mapper, type).writeValueAsString(src)
                 : mapper.writeValueAsString(src);
         if (cleanCache) {
-            cacheService.cleanSerializerCache(mapper);
+            cacheService.cleanSerializerCache(src.getClass());
         }
         return res;
     }
 
     /**
+     * Filters with a compiled writer, which is cached by its signature. The
+     * shared mapper is not changed, so filtered serialization does not need any
+     * lock.
      * 
-     * @param src            The source Object to be filtered.
-     * @param filterClass    This Class array contains at least one element. If no
-     *                       class is provided it is the class type of the source
-     *                       object. The filterClass is to become the key of the
-     *                       filter object cache.
-     * @param excludeClasses The classes to be excluded, optionally used only for
-     *                       methods like
-     *                       {@link #serializeAllExceptFilter(Object, Class[], String...)}.
-     * @param pf             Expecting a property filter from e.g @link
-     *                       {@link SimpleBeanPropertyFilter}.
-     * @param clean          if <code>true</code> does not reuse the filter object
-     *                       (no cashing).
-     * @return The serialized Object as String
+     * @param src         The source Object to be filtered.
+     * @param signature   The filter class, which is also the key of the filter
+     *                    object cache for following unfiltered calls, the
+     *                    attributes and the types to be excluded.
+     * @param clean       if <code>true</code> the filter is not applied to
+     *                    following calls of {@link #ser(Object, Boolean)}.
+     * @param valueWriter writes the serialized object into its target
+     * @return The result of the value writer, e.g. the serialized Object as String
      * @throws Exception
      */
-    private <T> String filter(Object src, Class<?>[] filterClasses, Class<T>[] excludeClasses, PropertyFilter pf,
-            Boolean clean) throws Exception {
-        FilterProvider filter = null;
-        if (filterClasses.length > 0) {
-            filter = retrieveFilter(pf, filterClasses[0], excludeClasses);
-        }
-        getLogger().info("filtering with filter " + filter);
-        String serialized = ser(src, filter, clean);
-        if (!isCacheFilters() || clean) {
-            if (filterClasses.length > 0) {
-                boolean exclude = (excludeClasses != null) ? true : false;
-                cacheService.removeFilter(filterClasses[0], exclude);
-            }
+    private <R> R filter(Object src, FilterSignature signature, Boolean clean, ValueWriter<R> valueWriter)
+            throws Exception {
+        if (src == null) {
+            getLogger().info("no serializable object.");
+            return null;
+        }
+        ObjectWriter writer = filterWriter(signature);
+        getLogger().debug("filtering with " + signature);
+        R serialized = valueWriter.write(writer, src);
+        if (isCacheFilters() && !clean) {
+            cacheService.putFilter(signature.getFilterClass(), writer);
+        } else {
+            cacheService.removeFilter(signature.getFilterClass());
         }
         return serialized;
     }
 
-    private <T> SimpleFilterProvider retrieveFilter(PropertyFilter pf, Class<?> filterClass,
-            Class<T>[] excludeClasses) {
-        SimpleFilterProvider filter = null;
-        if (pf != null) {
-            filter = new SimpleFilterProvider();
-            filter.setDefaultFilter(pf);
-        }
+    /**
+     * Provides the filter context of a call, which does not depend on any state
+     * shared with other calls.
+     * 
+     * @param signature the filter signature
+     * @return the cached or compiled writer
+     */
+    private ObjectWriter filterWriter(FilterSignature signature) {
         if (isCacheFilters()) {
-            if (!cacheService.getFilters().containsKey(filterClass.getName())) {
-                getLogger().debug("add filter for cache filter Class " + filterClass.getName());
-                setCustomIntrospectorWithExternalFilterId(filterClass, excludeClasses); // filter class
-                if (pf != null) {
-                    cacheService.getFilters().put(filterClass.getName(), filter);
-                }
-            } else {
-                filter = (SimpleFilterProvider) cacheService.getFilters().get(filterClass.getName());
-                // setCustomIntrospectorWithExternalFilterId(filterClass); // filter
-                // class
-            }
+            return cacheService.getWriter(mapper, signature, this::compileFilter);
+        }
+        return compileFilter(signature);
+    }
+
+    /**
+     * @param signature the filter signature
+     * @return an immutable writer applying the filter
+     */
+    private ObjectWriter compileFilter(FilterSignature signature) {
+        PropertyFilter pf;
+        if (signature.hasPaths()) {
+            pf = new PathPropertyFilter(signature.getFilterClass(), signature.isInclude(), signature.getAttributes());
+        } else {
+            String[] attributes = signature.getAttributes().toArray(new String[0]);
+            pf = signature.isInclude() ? SimpleBeanPropertyFilter.filterOutAllExcept(attributes)
+                    : SimpleBeanPropertyFilter.serializeAllExcept(attributes);
+        }
+        Class<?> filterClass = signature.hasPaths() ? Object.class : signature.getFilterClass();
+        FilterProvider filter = new ClassFilterProvider(filterClass, pf, signature.getExcludeTypes());
+        getLogger().debug("compiling filter " + signature);
+        return cacheService.getFilterWriter(mapper, this::createFilterMapper).with(filter);
+    }
+
+    /**
+     * The filter ids are resolved, when Jackson builds and caches the
+     * serializer of a class. A single copy of the mapper with its own
+     * introspector assigns a filter id to all classes, the
+     * {@link ClassFilterProvider} of the writer applies the filter only to the
+     * filter class and omits the excluded types, so all filters share the
+     * serializers of this mapper.
+     * 
+     * @return a mapper assigning filter ids to all classes
+     */
+    private ObjectMapper createFilterMapper() {
+        if (!(primary instanceof SimpleNameIntrospector)) {
+            return mapper;
         }
-        getLogger().debug("set filter:" + filter);
-        return filter;
-    }
-
-    /**
-     * @param filterClass
-     *                          <li>Adding filterClass into
-     *                          {@link SimpleNameIntrospector#setFilteredClass(Class)}
-     *                          enables the filtering process.
-     * @param externalFilterIds
-     *                          <li>Adding externalFilterIs to
-     *                          {@link SimpleNameIntrospector#setExternalFilterExcludeClasses(Class...)}
-     *                          excludes these classes.
-     */
-    private <T> void setCustomIntrospectorWithExternalFilterId(Class<?> filterClass,
-            Class<T>[] externalFilterClassIds) {
-        if (primary instanceof SimpleNameIntrospector) {
-            // first one is required that we get to the PropertyFilter
-            ((SimpleNameIntrospector) primary).setFilteredClasses(filterClass);
-            if (externalFilterClassIds != null) {
-                ((SimpleNameIntrospector) primary).setIsExludeType(true);
-                for (Class<T> filterClazz : externalFilterClassIds) {
-                    getLogger().debug("added class for filters " + filterClazz);
+        SimpleNameIntrospector introspector;
+        try {
+            introspector = (SimpleNameIntrospector) primary.getClass().getConstructor().newInstance();
+        } catch (Exception e) {
+            throw new IllegalStateException("JsonMapperService: Error instantiating " + primary.getClass(), e);
+        }
+        introspector.setFilteredClass(Object.class);
+        getLogger().debug("creating filter mapper");
+        ObjectMapper filterMapper = mapper.copy();
+        filterMapper.setAnnotationIntrospector(
+                (secondary != null) ? new AnnotationIntrospectorPair(introspector, secondary) : introspector);
+        return filterMapper;
+    }
+
+    /**
+     * Serializers and deserializers cached before mixins or modules changed are
+     * stale, flushes them and drops the filter profiles.
+     */
+    private void configurationChanged() {
+        cacheService.cleanSerializerCache(mapper);
+        cacheService.cleanDeserializerCache(mapper);
+        cacheService.invalidate();
+        initFilterProfiles();
+        warmup();
+    }
+
+    /**
+     * Resolves the serializers and deserializers of the configured types, also
+     * the serializers with the filter profiles, so the first calls do not
+     * introspect them. The writers of the profiles and the readers of the
+     * classes are kept, collections are only resolved.
+     */
+    @SuppressWarnings("unchecked")
+    private void warmup() {
+        if (warmupTypes.isEmpty()) {
+            return;
+        }
+        SerializerProvider serializers = mapper.getSerializerProviderInstance();
+        DeserializationContext deserializers = ((DefaultDeserializationContext) mapper.getDeserializationContext())
+                .createInstance(mapper.getDeserializationConfig(), null, null);
+        Map<String, Map<Class<?>, ObjectWriter>> typedWriters = new HashMap<>();
+        filterProfileWriters.keySet().forEach(name -> typedWriters.put(name, new HashMap<>()));
+        for (Class<?>[] types : warmupTypes) {
+            JavaType type = (types.length == 1) ? mapper.constructType(types[0])
+                    : mapper.getTypeFactory().constructCollectionType((Class<? extends Collection<?>>) types[0],
+                            types[1]);
+            try {
+                serializers.findTypedValueSerializer(type, true, null);
+                deserializers.findRootValueDeserializer(type);
+                // prefetches the serializer of the filter mapper
+                filterProfileWriters.forEach((name, writer) -> {
+                    ObjectWriter typed = writer.forType(type);
+                    if (types.length == 1) {
+                        typedWriters.get(name).put(types[0], typed);
+                    }
+                });
+                if (types.length == 1) {
+                    cacheService.getReader(mapper, types[0]);
                 }
-                ((SimpleNameIntrospector) primary).setExternalFilterExcludeClasses(externalFilterClassIds);
+                getLogger().debug("warmed up " + type);
+            } catch (Exception e) {
+                getLogger().warn("JsonMapperService: Error warming up " + type, e);
             }
         }
+        typedWriters.replaceAll((name, writers) -> Collections.unmodifiableMap(writers));
+        typedProfileWriters = Collections.unmodifiableMap(typedWriters);
+    }
+
+    /**
+     * Compiles the configured filter profiles, the writers are not subject to
+     * eviction from the filter cache.
+     */
+    private void initFilterProfiles() {
+        if (filterProfiles.isEmpty()) {
+            return;
+        }
+        Map<String, ObjectWriter> writers = new HashMap<>();
+        filterProfiles.forEach((name, signature) -> writers.put(name, compileFilter(signature)));
+        filterProfileWriters = Collections.unmodifiableMap(writers);
     }
 
     public Jackson2MapperService registerModule(Module module) {
         mapper.registerModule(module);
+        configurationChanged();
         return this;
     }
 
@@ -604,6 +1123,7 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
     @Override
     public void setDateFormat(final DateFormat df) {
         mapper.setDateFormat(df);
+        dateTimeModule.setDateFormat(df);
     }
 
     /**
@@ -659,6 +1179,12 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         if (configuredKeepFilter != null) {
             setCacheFilters( configuredKeepFilter.getValueAsBoolean());
         }
+        final Configuration configuredFilterCache = conf.getChild(FILTER_CACHE, false);
+        if (configuredFilterCache != null) {
+            this.filterCacheSize = configuredFilterCache.getAttributeAsInteger("maxSize", filterCacheSize);
+            this.filterCacheExpireAfterAccess = configuredFilterCache.getAttributeAsLong("expireAfterAccess",
+                    filterCacheExpireAfterAccess);
+        }
         final Configuration configuredEscapeChars = conf.getChild(ESCAPE_CHARS, false);
         if (configuredEscapeChars != null) {
             this.escapeCharsGlobal = configuredEscapeChars.getValueAsBoolean();
@@ -677,11 +1203,95 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         if (configuredjsonPath != null) {
             this.useJsonPath = configuredjsonPath.getValueAsBoolean();
         }
+        final Configuration configuredJsonFactory = conf.getChild(JSON_FACTORY, false);
+        if (configuredJsonFactory != null) {
+            this.jsonFactoryClass = configuredJsonFactory.getValue();
+        }
+        final Configuration configuredFilters = conf.getChild(FILTERS, false);
+        if (configuredFilters != null) {
+            this.filterProfiles = configureFilterProfiles(configuredFilters.getChildren("filter"));
+        }
+        final Configuration configuredWarmup = conf.getChild(WARMUP, false);
+        if (configuredWarmup != null) {
+            this.warmupTypes = configureWarmup(configuredWarmup.getChildren("class"));
+        }
+    }
+
+    /**
+     * @param classes the class elements with the class name as value and
+     *                optionally the attribute <code>collection</code>, the
+     *                class name of a collection with elements of this class
+     * @return the types to be resolved at initialization
+     * @throws ConfigurationException if a class could not be loaded
+     */
+    private List<Class<?>[]> configureWarmup(Configuration[] classes) throws ConfigurationException {
+        List<Class<?>[]> types = new ArrayList<>(classes.length);
+        for (Configuration clazz : classes) {
+            String className = clazz.getValue();
+            String collectionName = clazz.getAttribute("collection", null);
+            try {
+                Class<?> type = Class.forName(className);
+                if (collectionName == null) {
+                    types.add(new Class<?>[] { type });
+                } else {
+                    Class<?> collection = Class.forName(collectionName);
+                    if (!Collection.class.isAssignableFrom(collection)) {
+                        throw new ConfigurationException(
+                                "JsonMapperService: " + collectionName + " is not a collection", clazz);
+                    }
+                    types.add(new Class<?>[] { collection, type });
+                }
+            } catch (ClassNotFoundException e) {
+                throw new ConfigurationException("JsonMapperService: Error loading " + className + " for " + WARMUP,
+                        clazz, e);
+            }
+        }
+        return types;
+    }
+
+    /**
+     * @param filters the filter elements with the attributes <code>name</code>,
+     *                <code>class</code> and <code>type</code>
+     *                (<code>include</code> or <code>exclude</code>) and the
+     *                comma separated filter attributes as value
+     * @return the filter signatures by profile name
+     * @throws ConfigurationException if the class could not be loaded or the
+     *                                type is unknown
+     */
+    private Map<String, FilterSignature> configureFilterProfiles(Configuration[] filters)
+            throws ConfigurationException {
+        Map<String, FilterSignature> profiles = new LinkedHashMap<>();
+        for (Configuration filter : filters) {
+            String name = filter.getAttribute("name");
+            String className = filter.getAttribute("class");
+            String type = filter.getAttribute("type", "include");
+            Class<?> filterClass;
+            try {
+                filterClass = Class.forName(className);
+            } catch (ClassNotFoundException e) {
+                throw new ConfigurationException("JsonMapperService: Error loading " + className + " for filter " + name,
+                        filter, e);
+            }
+            String[] attributes = Arrays.stream(filter.getValue("").split(",")).map(String::trim)
+                    .filter(attribute -> !attribute.isEmpty()).toArray(String[]::new);
+            FilterSignature signature;
+            if ("include".equals(type)) {
+                signature = new FilterSignature(filterClass, true, attributes, null);
+            } else if ("exclude".equals(type)) {
+                signature = new FilterSignature(filterClass, false, attributes, new Class<?>[] { filterClass });
+            } else {
+                throw new ConfigurationException("JsonMapperService: Unknown type " + type + " for filter " + name,
+                        filter);
+            }
+            getLogger().debug("configured filter profile " + name + ": " + signature);
+            profiles.put(name, signature);
+        }
+        return Collections.unmodifiableMap(profiles);
     }
 
     @Override
     public void initialize() throws Exception {
-        mapper = new ObjectMapper(null, null, null);// add configurable JsonFactory,.. later?
+        mapper = new ObjectMapper(initJsonFactory(), null, null);
 
         initAnnotationInspectors();
 
@@ -695,7 +1305,11 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
             mapper.configure(SerializationFeature.FLUSH_AFTER_WRITE_VALUE, true);
         }
 
-        mapper.setDateFormat(new SimpleDateFormat(dateFormat));
+        SimpleDateFormat df = new SimpleDateFormat(dateFormat);
+        mapper.setDateFormat(df);
+        // date values are formatted without cloning the date format
+        dateTimeModule = new DateTimeModule(df);
+        mapper.registerModule(dateTimeModule);
 
         if (escapeCharsGlobal) {
             mapper.getFactory().setCharacterEscapes(characterEscapes);
@@ -718,11 +1332,14 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
 
             }
         });
-        cacheService = new CacheService(primary);
+        // filters are applied per writer, filter ids without a filter are serialized unfiltered
+        mapper.setFilterProvider(new SimpleFilterProvider().setFailOnUnknownId(false));
+        cacheService = new CacheService(primary, filterCacheSize, filterCacheExpireAfterAccess);
         if (cacheService instanceof LogEnabled) {
             cacheService.enableLogging(getLogger().getChildLogger(cacheService.getClass().getSimpleName()));
             getLogger().info("setting cacheService logger: " + cacheService.getClass().getSimpleName());
         }
+        initFilterProfiles();
 
         if (useJsonPath) {
             // set it before runtime
@@ -736,6 +1353,27 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
             }
 
         }
+        warmup();
+    }
+
+    /**
+     * @return the configured factory, e.g. for a binary format like Smile or CBOR,
+     *         or <code>null</code> to use the default JSON factory
+     * @throws InstantiationException if the factory could not be created
+     */
+    private JsonFactory initJsonFactory() throws InstantiationException {
+        if (StringUtils.isEmpty(jsonFactoryClass)) {
+            return null;
+        }
+        try {
+            JsonFactory factory = (JsonFactory) loadClass(jsonFactoryClass).getConstructor().newInstance();
+            getLogger().info("using json factory: " + factory.getClass().getName() + ", format: "
+                    + factory.getFormatName());
+            return factory;
+        } catch (Exception e) {
+            throw new InstantiationException(
+                    "JsonMapperService: Error instantiating " + jsonFactoryClass + " for " + JSON_FACTORY);
+        }
     }
 
     private void initDefaultTyping() {
@@ -882,6 +1520,13 @@ public class Jackson2MapperService extends AbstractLogEnabled implements JsonSer
         this.mapper = mapper;
     }
 
+    /**
+     * @return the cache service, e.g. to monitor the filter cache statistics
+     */
+    public CacheService getCacheService() {
+        return cacheService;
+    }
+
     public boolean isCacheFilters() {
         return cacheFilters;
     }
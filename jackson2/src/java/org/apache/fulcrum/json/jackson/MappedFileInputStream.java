@@ -0,0 +1,100 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.FileChannel.MapMode;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Reads a file through memory mapped regions, so the file content is not copied
+ * into the heap besides the parser buffer. As a single mapping is limited to
+ * 2GB, files are mapped region by region.
+ */
+final class MappedFileInputStream extends InputStream {
+
+    static final long DEFAULT_REGION_SIZE = 64L * 1024 * 1024;
+
+    private final FileChannel channel;
+    private final long size;
+    private final long regionSize;
+    private long regionEnd = 0;
+    private MappedByteBuffer region;
+
+    MappedFileInputStream(Path path) throws IOException {
+        this(path, DEFAULT_REGION_SIZE);
+    }
+
+    MappedFileInputStream(Path path, long regionSize) throws IOException {
+        this.channel = FileChannel.open(path, StandardOpenOption.READ);
+        this.size = channel.size();
+        this.regionSize = regionSize;
+    }
+
+    /**
+     * @return <code>false</code> if the end of file is reached
+     */
+    private boolean ensureRegion() throws IOException {
+        if (region != null && region.hasRemaining()) {
+            return true;
+        }
+        if (regionEnd >= size) {
+            return false;
+        }
+        long length = Math.min(regionSize, size - regionEnd);
+        region = channel.map(MapMode.READ_ONLY, regionEnd, length);
+        regionEnd += length;
+        return true;
+    }
+
+    @Override
+    public int read() throws IOException {
+        return ensureRegion() ? region.get() & 0xFF : -1;
+    }
+
+    @Override
+    public int read(byte[] b, int off, int len) throws IOException {
+        if (len == 0) {
+            return 0;
+        }
+        if (!ensureRegion()) {
+            return -1;
+        }
+        int count = Math.min(len, region.remaining());
+        region.get(b, off, count);
+        return count;
+    }
+
+    @Override
+    public int available() throws IOException {
+        long remaining = (region != null ? region.remaining() : 0) + (size - regionEnd);
+        return (int) Math.min(Integer.MAX_VALUE, remaining);
+    }
+
+    @Override
+    public void close() throws IOException {
+        region = null;
+        channel.close();
+    }
+}
@@ -19,9 +19,13 @@ package org.apache.fulcrum.json.jackson;
  * under the License.
  */
 
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.CopyOnWriteArrayList;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import org.apache.avalon.framework.logger.LogEnabled;
 import org.apache.avalon.framework.logger.Logger;
@@ -48,14 +52,38 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
      */
     private static final long serialVersionUID = 1L;
     
-    private List<Class<?>> filteredClasses = new CopyOnWriteArrayList<>();
-    private List<String> externalFilterExcludeClasses = new CopyOnWriteArrayList<>();
-    private List<String> externalFilterIncludeClasses = new CopyOnWriteArrayList<>();
+    private CopyOnWriteArrayList<Class<?>> filteredClasses = new CopyOnWriteArrayList<>();
+    // type indexes by class name
+    private Set<String> externalFilterExcludeClasses = ConcurrentHashMap.newKeySet();
+    private Set<String> externalFilterIncludeClasses = ConcurrentHashMap.newKeySet();
     // is used only for filtering by class
     private AtomicBoolean isExludeType = new AtomicBoolean(false);
+
+    // incremented, if the filtered classes change, invalidates the resolutions
+    private final AtomicInteger generation = new AtomicInteger();
+    // memoized per class, if it is filtered
+    private transient volatile ClassValue<FilterResolution> resolutions;
     
     private static Logger logger;
 
+    /**
+     * Holds the resolution of a class for a generation of the filtered classes.
+     */
+    private static final class FilterResolution {
+
+        private static final class State {
+            final int generation;
+            final boolean filtered;
+
+            State(int generation, boolean filtered) {
+                this.generation = generation;
+                this.filtered = filtered;
+            }
+        }
+
+        volatile State state = new State(-1, false);
+    }
+
     /**
      * Filtering on method types.
      * 
@@ -70,15 +98,10 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
                     isIgnorable = true;
                 }
             } else {
-                // not yet used
+                // not yet used, the annotated class is already loaded, no need to check it
                 if (!externalFilterIncludeClasses.isEmpty()
                         && !externalFilterIncludeClasses.contains(ac.getName())) {
-                        try {
-                            Class.forName(ac.getName());
-                            isIgnorable = true;
-                        } catch (ClassNotFoundException e) {
-                            // no clazz ignore, could NOT ignore as no filterable clazz
-                        }
+                    isIgnorable = true;
                 }
             }
         }
@@ -95,51 +118,90 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
         // Let's default to current behavior if annotation is found:
         // Object id = super.findFilterId(ac);
         // but use simple class name if not
-        if (id == null) {
-            String name = ac.getName();
-            Class<?> targetClazz = ac.getRawType();
-            if (!filteredClasses.isEmpty()
-                    && filteredClasses.contains(targetClazz)
-                    ) {
-                logger.debug("filter applying to " +name);
-                id = name;
-            } else {
-                // check if target class is a child from filter class -> apply filter 
-                for (Class<?> filterClazz : filteredClasses) {
-                    // the currently checked instance of type targetClazz is a child of the filter class filterClazz ->  filter child 
-                    if (filterClazz.isAssignableFrom(targetClazz)) {
-                        logger.debug("filter applying to parent " +filterClazz +" matching child class "+name );
-                        id = name;
-                        break;
-                    }
-                    // the currently checked instance of type targetClazz is a parent of the filter class filterClazz -> filter parent
-                    if (targetClazz.isAssignableFrom(filterClazz)) {
-                        logger.debug("filter applying to child " +filterClazz+" matching parent class "+name);
-                        id = name;
-                        break;
-                    }
+        if (id == null && isFiltered(ac.getRawType())) {
+            id = ac.getName();
+        }
+        return id;
+    }
+
+    /**
+     * @param targetClazz the class to check
+     * @return <code>true</code> if the class is one of the filtered classes, a
+     *         child or a parent of one. The result is memoized per class until
+     *         the filtered classes change.
+     */
+    private boolean isFiltered(Class<?> targetClazz) {
+        if (targetClazz == null || filteredClasses.isEmpty()) {
+            return false;
+        }
+        int current = generation.get();
+        FilterResolution resolution = resolutions().get(targetClazz);
+        FilterResolution.State state = resolution.state;
+        if (state.generation != current) {
+            state = new FilterResolution.State(current, resolve(targetClazz));
+            resolution.state = state;
+        }
+        return state.filtered;
+    }
+
+    private boolean resolve(Class<?> targetClazz) {
+        String name = targetClazz.getName();
+        if (filteredClasses.contains(targetClazz)) {
+            logger.debug("filter applying to " + name);
+            return true;
+        }
+        // check if target class is a child from filter class -> apply filter
+        for (Class<?> filterClazz : filteredClasses) {
+            // the currently checked instance of type targetClazz is a child of the filter class filterClazz ->  filter child 
+            if (filterClazz.isAssignableFrom(targetClazz)) {
+                logger.debug("filter applying to parent " + filterClazz + " matching child class " + name);
+                return true;
+            }
+            // the currently checked instance of type targetClazz is a parent of the filter class filterClazz -> filter parent
+            if (targetClazz.isAssignableFrom(filterClazz)) {
+                logger.debug("filter applying to child " + filterClazz + " matching parent class " + name);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private ClassValue<FilterResolution> resolutions() {
+        ClassValue<FilterResolution> result = resolutions;
+        if (result == null) {
+            synchronized (generation) {
+                result = resolutions;
+                if (result == null) {
+                    result = new ClassValue<FilterResolution>() {
+                        @Override
+                        protected FilterResolution computeValue(Class<?> type) {
+                            return new FilterResolution();
+                        }
+                    };
+                    resolutions = result;
                 }
             }
         }
-        return id;
+        return result;
     }
 
+    /**
+     * @return a copy of the filtered classes, modify them with the setters
+     */
     public List<Class<?>> getFilteredClasses() {
-        return filteredClasses;
+        return new ArrayList<>(filteredClasses);
     }
 
     public void setFilteredClass(Class<?> filteredClass) {
-        if (!filteredClasses.contains(filteredClass)) {
-            filteredClasses.add(filteredClass);
+        if (filteredClasses.addIfAbsent(filteredClass)) {
+            generation.incrementAndGet();
         }
     }
 
     public void setFilteredClasses(Class<?>... classes) {
 
         for (int i = 0; i < classes.length; i++) {
-            if (!filteredClasses.contains(classes[i])) {
-                filteredClasses.add(classes[i]);
-            }
+            setFilteredClass(classes[i]);
 //            if (classes[i].getSuperclass() != null) {
 //                Class superClazz = classes[i].getSuperclass();
 //                if (!externalFilterClasses.contains(superClazz)) {
@@ -150,41 +212,31 @@ public class SimpleNameIntrospector extends NopAnnotationIntrospector implements
     }
 
     public void removeFilteredClass(Class<?> filteredClass) {
-            if (filteredClasses.contains(filteredClass)) {
-                filteredClasses.remove(filteredClass);
+            if (filteredClasses.remove(filteredClass)) {
+                generation.incrementAndGet();
             }
     }
     
     public void setExternalFilterExcludeClasses(Class<?>... classes) {
 
         for (int i = 0; i < classes.length; i++) {
-            if (!externalFilterExcludeClasses.contains(classes[i].getName())) {
-
-                externalFilterExcludeClasses.add(classes[i].getName());
-            }
+            externalFilterExcludeClasses.add(classes[i].getName());
         }
     }
     
     public void removeExternalFilterExcludeClass(Class<?> externalFilterClass) {
-        if (externalFilterExcludeClasses.contains(externalFilterClass.getName())) {
-            externalFilterExcludeClasses.remove(externalFilterClass.getName());
-        }
+        externalFilterExcludeClasses.remove(externalFilterClass.getName());
     }
     
     public void setExternalFilterIncludeClasses(Class<?>... classes) {
 
         for (int i = 0; i < classes.length; i++) {
-            if (!externalFilterIncludeClasses.contains(classes[i].getName())) {
-
-                externalFilterIncludeClasses.add(classes[i].getName());
-            }
+            externalFilterIncludeClasses.add(classes[i].getName());
         }
     }
     
     public void removeExternalFilterIncludeClasses(Class<?> externalFilterClass) {
-        if (externalFilterIncludeClasses.contains(externalFilterClass.getName())) {
-            externalFilterIncludeClasses.remove(externalFilterClass.getName());
-        }
+        externalFilterIncludeClasses.remove(externalFilterClass.getName());
     }
     
     public boolean getIsExludeType() {
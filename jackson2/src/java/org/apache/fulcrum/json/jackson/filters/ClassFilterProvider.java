@@ -0,0 +1,160 @@
+package org.apache.fulcrum.json.jackson.filters;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.Set;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.JsonMappingException;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.jsonFormatVisitors.JsonObjectFormatVisitor;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.fasterxml.jackson.databind.ser.BeanPropertyFilter;
+import com.fasterxml.jackson.databind.ser.FilterProvider;
+import com.fasterxml.jackson.databind.ser.PropertyFilter;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+/**
+ * Applies a filter to the instances of a filter class, its children and its
+ * parents, all other objects are serialized unfiltered. The class is resolved
+ * from the object serialized, so a single mapper assigning filter ids to all
+ * classes serves any filter class. Properties of the excluded types are
+ * omitted from all objects.
+ *
+ * Instances are immutable and could be shared between threads.
+ */
+public class ClassFilterProvider extends FilterProvider {
+
+    private final Class<?> filterClass;
+    private final FilterProvider filters;
+    private final PropertyFilter filter;
+    private final PropertyFilter others;
+
+    /**
+     * @param filterClass  the filtered class, {@link Object} filters all objects
+     * @param filter       the filter of the instances of the class
+     * @param excludeTypes properties of these types are omitted, may be
+     *                     <code>null</code>
+     */
+    public ClassFilterProvider(Class<?> filterClass, PropertyFilter filter, Collection<Class<?>> excludeTypes) {
+        this.filterClass = filterClass;
+        this.filters = null;
+        if (excludeTypes == null || excludeTypes.isEmpty()) {
+            this.filter = filter;
+            this.others = SimpleBeanPropertyFilter.serializeAll();
+        } else {
+            Set<Class<?>> types = new HashSet<>(excludeTypes);
+            this.filter = new ExcludeTypesFilter(filter, types);
+            this.others = new ExcludeTypesFilter(SimpleBeanPropertyFilter.serializeAll(), types);
+        }
+    }
+
+    /**
+     * @param filterClass the filtered class, {@link Object} filters all objects
+     * @param filters     provides the filters of the instances of the class by
+     *                    their filter id
+     */
+    public ClassFilterProvider(Class<?> filterClass, FilterProvider filters) {
+        this.filterClass = filterClass;
+        this.filters = filters;
+        this.filter = null;
+        this.others = SimpleBeanPropertyFilter.serializeAll();
+    }
+
+    @Deprecated
+    @Override
+    public BeanPropertyFilter findFilter(Object filterId) {
+        throw new UnsupportedOperationException("Access to deprecated filters not supported");
+    }
+
+    @Override
+    public PropertyFilter findPropertyFilter(Object filterId, Object valueToFilter) {
+        if (valueToFilter != null && !isFiltered(valueToFilter.getClass())) {
+            return others;
+        }
+        return (filters != null) ? filters.findPropertyFilter(filterId, valueToFilter) : filter;
+    }
+
+    private boolean isFiltered(Class<?> type) {
+        return filterClass.isAssignableFrom(type) || type.isAssignableFrom(filterClass);
+    }
+
+    @Override
+    public String toString() {
+        return "ClassFilterProvider [filterClass=" + filterClass.getName() + "]";
+    }
+
+    /**
+     * Omits the properties of the excluded types, which are matched by the
+     * declared type of the property, and delegates all others.
+     */
+    private static final class ExcludeTypesFilter implements PropertyFilter {
+
+        private final PropertyFilter filter;
+        private final Set<Class<?>> excludeTypes;
+
+        ExcludeTypesFilter(PropertyFilter filter, Set<Class<?>> excludeTypes) {
+            this.filter = filter;
+            this.excludeTypes = excludeTypes;
+        }
+
+        private boolean isExcluded(PropertyWriter writer) {
+            return writer.getType() != null && excludeTypes.contains(writer.getType().getRawClass());
+        }
+
+        @Override
+        public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider prov, PropertyWriter writer)
+                throws Exception {
+            if (!isExcluded(writer)) {
+                filter.serializeAsField(pojo, jgen, prov, writer);
+            } else if (!jgen.canOmitFields()) {
+                writer.serializeAsOmittedField(pojo, jgen, prov);
+            }
+        }
+
+        @Override
+        public void serializeAsElement(Object elementValue, JsonGenerator jgen, SerializerProvider prov,
+                PropertyWriter writer) throws Exception {
+            if (!isExcluded(writer)) {
+                filter.serializeAsElement(elementValue, jgen, prov, writer);
+            }
+        }
+
+        @Deprecated
+        @Override
+        public void depositSchemaProperty(PropertyWriter writer, ObjectNode propertiesNode,
+                SerializerProvider provider) throws JsonMappingException {
+            if (!isExcluded(writer)) {
+                filter.depositSchemaProperty(writer, propertiesNode, provider);
+            }
+        }
+
+        @Override
+        public void depositSchemaProperty(PropertyWriter writer, JsonObjectFormatVisitor objectVisitor,
+                SerializerProvider provider) throws JsonMappingException {
+            if (!isExcluded(writer)) {
+                filter.depositSchemaProperty(writer, objectVisitor, provider);
+            }
+        }
+    }
+}
@@ -0,0 +1,180 @@
+package org.apache.fulcrum.json.jackson.filters;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.Map;
+
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonStreamContext;
+import com.fasterxml.jackson.databind.SerializerProvider;
+import com.fasterxml.jackson.databind.ser.PropertyWriter;
+import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
+
+/**
+ * Filters nested properties by paths, either dotted (<code>address.city</code>)
+ * or JSON Pointers (<code>/address/city</code>). The paths are compiled into a
+ * tree of property names and applied while serializing, relative to the
+ * nearest enclosing instance of the filter class (or a parent class of it).
+ * Array elements are addressed by the path of the array property, e.g.
+ * <code>children.name</code> for a list of children.
+ *
+ * A path including only a property includes its whole subtree, a path
+ * excluding a property excludes its whole subtree. The filter requires filter
+ * ids for all nested classes, e.g. by filtering {@link Object}.
+ *
+ * The node of an object is resolved once from the node of the enclosing
+ * object, which is carried per thread while its properties are serialized, so
+ * writing a property neither rebuilds its path nor allocates.
+ *
+ * Instances are immutable and could be shared between threads.
+ */
+public class PathPropertyFilter extends SimpleBeanPropertyFilter {
+
+    private static final class Node {
+        final Map<String, Node> children = new HashMap<>();
+        boolean terminal;
+    }
+
+    /**
+     * The node of the object, which properties are currently serialized by a
+     * filter into a generator on this thread.
+     */
+    private static final class Scope {
+        PathPropertyFilter filter;
+        JsonGenerator generator;
+        JsonStreamContext context;
+        Node node;
+    }
+
+    private static final ThreadLocal<Scope> SCOPE = ThreadLocal.withInitial(Scope::new);
+
+    private final Class<?> filterClass;
+    private final boolean include;
+    private final Node root = new Node();
+
+    /**
+     * @param filterClass the class, the paths are relative to
+     * @param include     <code>true</code> to serialize only the paths,
+     *                    <code>false</code> to serialize all except the paths
+     * @param paths       dotted paths or JSON Pointers
+     */
+    public PathPropertyFilter(Class<?> filterClass, boolean include, Collection<String> paths) {
+        this.filterClass = filterClass;
+        this.include = include;
+        for (String path : paths) {
+            Node node = root;
+            for (String name : split(path)) {
+                node = node.children.computeIfAbsent(name, key -> new Node());
+            }
+            node.terminal = true;
+        }
+    }
+
+    /**
+     * @param attribute the attribute
+     * @return <code>true</code> if the attribute is a nested path or a JSON
+     *         Pointer
+     */
+    public static boolean isPath(String attribute) {
+        return attribute != null && (attribute.indexOf('.') > 0 || attribute.startsWith("/"));
+    }
+
+    private static String[] split(String path) {
+        if (!path.startsWith("/")) {
+            return path.split("\\.");
+        }
+        String[] names = path.substring(1).split("/");
+        for (int i = 0; i < names.length; i++) {
+            names[i] = names[i].replace("~1", "/").replace("~0", "~");
+        }
+        return names;
+    }
+
+    @Override
+    public void serializeAsField(Object pojo, JsonGenerator jgen, SerializerProvider provider, PropertyWriter writer)
+            throws Exception {
+        JsonStreamContext context = jgen.getOutputContext();
+        Scope scope = SCOPE.get();
+        boolean inScope = scope.filter == this && scope.generator == jgen;
+        Node node = resolve(context, inScope ? scope.context : null, scope.node);
+        Node child = (node != null) ? node.children.get(writer.getName()) : null;
+        boolean serialize = node == null || (include ? child != null : child == null || !child.terminal);
+        if (serialize) {
+            // nested objects resolve their node from the node of this object
+            PathPropertyFilter outerFilter = scope.filter;
+            JsonGenerator outerGenerator = scope.generator;
+            JsonStreamContext outerContext = scope.context;
+            Node outerNode = scope.node;
+            scope.filter = this;
+            scope.generator = jgen;
+            scope.context = context;
+            scope.node = node;
+            try {
+                writer.serializeAsField(pojo, jgen, provider);
+            } finally {
+                scope.filter = outerFilter;
+                scope.generator = outerGenerator;
+                scope.context = outerContext;
+                scope.node = outerNode;
+            }
+        } else if (!jgen.canOmitFields()) { // since 2.3
+            writer.serializeAsOmittedField(pojo, jgen, provider);
+        }
+    }
+
+    /**
+     * Resolves the node from the parent contexts up to the nearest filter root
+     * or the context of the scope, which is usually the parent.
+     * 
+     * @param context      the context of the object currently serialized
+     * @param scopeContext the context of an enclosing object currently
+     *                     serialized or <code>null</code>
+     * @param scopeNode    the node of the enclosing object
+     * @return the node of the object or <code>null</code>, if the object is not
+     *         filtered
+     */
+    private Node resolve(JsonStreamContext context, JsonStreamContext scopeContext, Node scopeNode) {
+        if (context == null) {
+            return null;
+        }
+        if (isFilterRoot(context)) {
+            return root;
+        }
+        if (context == scopeContext) {
+            return scopeNode;
+        }
+        JsonStreamContext parent = context.getParent();
+        Node node = resolve(parent, scopeContext, scopeNode);
+        if (node == null || parent == null || !parent.inObject()) {
+            return node;
+        }
+        Node child = node.children.get(parent.getCurrentName());
+        // not a path or the whole subtree is included
+        return (child == null || child.terminal) ? null : child;
+    }
+
+    private boolean isFilterRoot(JsonStreamContext context) {
+        Object value = context.getCurrentValue();
+        return context.inObject() && value != null
+                && (filterClass.isInstance(value) || value.getClass().isAssignableFrom(filterClass));
+    }
+}
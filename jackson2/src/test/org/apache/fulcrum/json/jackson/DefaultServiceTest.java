@@ -21,21 +21,50 @@ package org.apache.fulcrum.json.jackson;
 
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.InputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.text.SimpleDateFormat;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Calendar;
 import java.util.Collection;
+import java.util.Collections;
+import java.util.Date;
 import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Locale;
 import java.util.Map;
+import java.util.TimeZone;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Stream;
 
 import org.apache.avalon.framework.logger.Logger;
 import org.apache.fulcrum.json.JsonService;
 import org.apache.fulcrum.json.jackson.example.Bean;
 import org.apache.fulcrum.json.jackson.example.BeanChild;
 import org.apache.fulcrum.json.jackson.example.Rectangle;
+import org.apache.fulcrum.json.jackson.example.Team;
 import org.apache.fulcrum.json.jackson.example.TestClass;
 import org.apache.fulcrum.json.jackson.filters.CustomModuleWrapper;
 import org.apache.fulcrum.json.jackson.mixins.BeanMixin;
@@ -51,15 +80,24 @@ import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestReporter;
 
+import com.fasterxml.jackson.annotation.JsonFormat;
 import com.fasterxml.jackson.annotation.JsonIgnore;
 import com.fasterxml.jackson.core.JsonProcessingException;
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.AnnotationIntrospector;
+import com.fasterxml.jackson.databind.BeanDescription;
+import com.fasterxml.jackson.databind.DeserializationConfig;
+import com.fasterxml.jackson.databind.JsonDeserializer;
 import com.fasterxml.jackson.databind.MappingJsonFactory;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import com.fasterxml.jackson.databind.ObjectMapper.DefaultTyping;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.fasterxml.jackson.databind.deser.BeanDeserializerModifier;
+import com.fasterxml.jackson.databind.introspect.AnnotatedClass;
 import com.fasterxml.jackson.databind.introspect.AnnotationIntrospectorPair;
 import com.fasterxml.jackson.databind.introspect.JacksonAnnotationIntrospector;
+import com.fasterxml.jackson.databind.module.SimpleModule;
+import com.fasterxml.jackson.databind.ser.DefaultSerializerProvider;
 import com.fasterxml.jackson.databind.ser.PropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleBeanPropertyFilter;
 import com.fasterxml.jackson.databind.ser.impl.SimpleFilterProvider;
@@ -373,6 +411,167 @@ public class DefaultServiceTest extends BaseUnit5Test {
         assertEquals(TestClass.class, deson.getClass());
     }
 
+    /**
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testDeSerializeBytes() throws Exception {
+        byte[] serJson = sc.serToBytes(new TestClass("mytest"));
+        assertEquals(preDefinedOutput, new String(serJson, StandardCharsets.UTF_8));
+        TestClass deson = sc.deSer(serJson, TestClass.class);
+        assertEquals("mytest", deson.getName());
+
+        ByteBuffer buffer = ByteBuffer.allocateDirect(256);
+        int written = sc.serInto(new TestClass("mytest"), buffer);
+        assertEquals(serJson.length, written);
+        buffer.flip();
+        deson = sc.deSer(buffer, TestClass.class);
+        assertEquals("mytest", deson.getName());
+        assertEquals(0, buffer.remaining());
+
+        deson = sc.deSer(ByteBuffer.wrap(serJson), TestClass.class);
+        assertEquals("mytest", deson.getName());
+    }
+
+    /**
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testDeserializationIterator() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 10; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        byte[] serColl = sc.serToBytes(rectList);
+        Iterator<Rectangle> iterator = sc.deSerIterator(new ByteArrayInputStream(serColl), Rectangle.class);
+        int i = 0;
+        while (iterator.hasNext()) {
+            Rectangle rect = iterator.next();
+            assertEquals("rect" + i, rect.getName());
+            i++;
+        }
+        assertEquals(rectList.size(), i);
+        try (Stream<Rectangle> stream = sc.deSerStream(new ByteArrayInputStream(serColl), Rectangle.class)) {
+            assertEquals(45, stream.mapToInt(Rectangle::getW).sum());
+        }
+    }
+
+    /**
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testSerializeIterator() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 10; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.ser(rectList.stream(), out);
+        assertEquals(sc.ser(rectList), out.toString(StandardCharsets.UTF_8.name()));
+
+        StringWriter writer = new StringWriter();
+        sc.ser(new ArrayList<Rectangle>().iterator(), writer);
+        assertEquals("[]", writer.toString());
+    }
+
+    /**
+     * each element is serialized like ser(Object), also with a kept filter of
+     * another element class
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testSerializeMixedIterator() throws Exception {
+        Bean bean = new Bean();
+        bean.setAge(1);
+        bean.setName("bean1");
+        Rectangle rectangle = new Rectangle(2, 3, "rect");
+        // keeps the filter of Bean
+        sc.serializeOnlyFilter(bean, Bean.class, false, "age");
+        List<Object> values = Arrays.asList(rectangle, bean, rectangle);
+        String expected = "[" + sc.ser(rectangle) + "," + sc.ser(bean) + "," + sc.ser(rectangle) + "]";
+        assertEquals("{\"age\":1}", sc.ser(bean));
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.ser(values.iterator(), out);
+        assertEquals(expected, out.toString(StandardCharsets.UTF_8.name()));
+        StringWriter writer = new StringWriter();
+        sc.serJsonLines(values.iterator(), writer);
+        assertEquals(sc.ser(rectangle) + "\n" + sc.ser(bean) + "\n" + sc.ser(rectangle) + "\n",
+                writer.toString());
+    }
+
+    /**
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testJsonLines() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 3; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.serJsonLines(rectList.stream(), out);
+        String lines = out.toString(StandardCharsets.UTF_8.name());
+        assertEquals("{\"w\":0,\"h\":0,\"name\":\"rect0\",\"size\":0}\n"
+                + "{\"w\":1,\"h\":1,\"name\":\"rect1\",\"size\":1}\n"
+                + "{\"w\":2,\"h\":2,\"name\":\"rect2\",\"size\":4}\n", lines);
+        try (Stream<Rectangle> stream = sc.deSerJsonLines(new ByteArrayInputStream(out.toByteArray()), Rectangle.class)) {
+            assertEquals(3, stream.filter(r -> r.getName().startsWith("rect")).count());
+        }
+    }
+
+    /**
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testDeserializationAsync() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 10; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        byte[] serColl = sc.serToBytes(rectList);
+        List<Rectangle> result = new ArrayList<>();
+        try (AsyncDeserializer<Rectangle> deser = ((Jackson2MapperService) sc).deSerAsync(Rectangle.class, true)) {
+            // feed small chunks, objects are returned when completed
+            for (int offset = 0; offset < serColl.length; offset += 7) {
+                result.addAll(deser.feed(serColl, offset, Math.min(7, serColl.length - offset)));
+            }
+            result.addAll(deser.endOfInput());
+        }
+        assertEquals(10, result.size());
+        assertEquals("rect9", result.get(9).getName());
+    }
+
+    /**
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testDeserializationMappedFile() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 10; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        Path file = Files.createTempFile("rectangles", ".json");
+        try {
+            Files.write(file, sc.serToBytes(rectList));
+            Iterator<Rectangle> iterator = ((Jackson2MapperService) sc).deSerIterator(file, Rectangle.class);
+            int i = 0;
+            while (iterator.hasNext()) {
+                assertEquals("rect" + i++, iterator.next().getName());
+            }
+            assertEquals(10, i);
+            // regions smaller than the file
+            try (InputStream in = new MappedFileInputStream(file, 16)) {
+                assertEquals(sc.ser(rectList), new String(in.readAllBytes(), StandardCharsets.UTF_8));
+            }
+            Files.write(file, sc.serToBytes(new Rectangle(5, 10, "jim")));
+            Rectangle rect = ((Jackson2MapperService) sc).deSer(file, Rectangle.class);
+            assertEquals("jim", rect.getName());
+        } finally {
+            Files.delete(file);
+        }
+    }
+
     /**
      * @throws Exception generic exception
      */
@@ -507,6 +706,52 @@ public class DefaultServiceTest extends BaseUnit5Test {
         assertEquals( "{\"w\":5}", rectangle, "Ser filtered Rectangle failed ");
     }
 
+    /**
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testSerializeToStream() throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.ser(new TestClass("mytest"), out);
+        assertEquals(preDefinedOutput, out.toString(StandardCharsets.UTF_8.name()), "Stream serialization failed ");
+
+        StringWriter writer = new StringWriter();
+        sc.ser(new TestClass("mytest"), writer);
+        assertEquals(preDefinedOutput, writer.toString(), "Writer serialization failed ");
+
+        Rectangle filteredRectangle = new Rectangle(5, 10);
+        filteredRectangle.setName("jim");
+        out = new ByteArrayOutputStream();
+        sc.serializeOnlyFilter(filteredRectangle, out, Rectangle.class, "w");
+        assertEquals("{\"w\":5}", out.toString(StandardCharsets.UTF_8.name()), "Ser filtered Rectangle failed ");
+
+        writer = new StringWriter();
+        sc.serializeAllExceptFilter(filteredRectangle, writer, Rectangle.class, "w", "h", "size");
+        assertEquals("{\"name\":\"jim\"}", writer.toString(), "Ser filtered Rectangle failed ");
+    }
+
+    /**
+     * the cached writers flush, but do not close the target
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testSerializeToStreamNotClosed() throws Exception {
+        AtomicBoolean closed = new AtomicBoolean();
+        ByteArrayOutputStream out = new ByteArrayOutputStream() {
+            @Override
+            public void close() {
+                closed.set(true);
+            }
+        };
+        Rectangle filteredRectangle = new Rectangle(5, 10);
+        sc.ser(filteredRectangle, out);
+        sc.serializeOnlyFilter(filteredRectangle, out, Rectangle.class, "w");
+        sc.serializeOnlyFilter(filteredRectangle, out, Rectangle.class, "w");
+        assertFalse(closed.get(), "Stream closed");
+        assertTrue(out.toString(StandardCharsets.UTF_8.name()).endsWith("{\"w\":5}{\"w\":5}"));
+    }
+
     /**
      * @throws Exception generic exception
      */
@@ -546,7 +791,356 @@ public class DefaultServiceTest extends BaseUnit5Test {
                                                                                                             // filter
         assertEquals("{\"name\":\"bean0\"}", sc.serializeOnlyFilter(bean, Object.class, true, "name"));
     }
-    
+
+    /**
+     * compiled filters are cached per signature and do not change the shared mapper
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testSerializeBeanWithCompiledFilters() throws Exception {
+        Bean bean = new Bean();
+        bean.setAge(1);
+        bean.setName("bean1");
+        for (int i = 0; i < 2; i++) {
+            assertEquals("{\"name\":\"bean1\"}", sc.serializeOnlyFilter(bean, Bean.class, "name"));
+            assertEquals("{\"age\":1}", sc.serializeOnlyFilter(bean, Bean.class, "age"));
+            assertEquals("{\"age\":1}", sc.serializeAllExceptFilter(bean, Bean.class, "name", "profession"));
+            String serJson = sc.ser(bean);
+            assertTrue(serJson.contains("\"name\":\"bean1\"") && serJson.contains("\"age\":1"),
+                    "unfiltered serialization expected: " + serJson);
+        }
+    }
+
+    /**
+     * filter ids are memoized per class and resolved again, if the filtered classes change
+     */
+    @Test
+    public void testFilterIdResolution() {
+        SimpleNameIntrospector introspector = new SimpleNameIntrospector();
+        ObjectMapper objectMapper = new ObjectMapper().setAnnotationIntrospector(introspector);
+        AnnotatedClass beanClass = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(Bean.class)).getClassInfo();
+        assertNull(introspector.findFilterId(beanClass));
+        introspector.setFilteredClasses(BeanChild.class);
+        assertEquals(Bean.class.getName(), introspector.findFilterId(beanClass), "parent of filtered class");
+        assertEquals(Bean.class.getName(), introspector.findFilterId(beanClass));
+        introspector.removeFilteredClass(BeanChild.class);
+        assertNull(introspector.findFilterId(beanClass));
+        introspector.setFilteredClasses(Rectangle.class);
+        assertNull(introspector.findFilterId(beanClass));
+    }
+
+    /**
+     * excluded and included types are looked up by name
+     */
+    @Test
+    public void testIgnorableTypes() {
+        SimpleNameIntrospector introspector = new SimpleNameIntrospector();
+        ObjectMapper objectMapper = new ObjectMapper().setAnnotationIntrospector(introspector);
+        AnnotatedClass beanClass = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(Bean.class)).getClassInfo();
+        AnnotatedClass rectangleClass = objectMapper.getSerializationConfig()
+                .introspect(objectMapper.constructType(Rectangle.class)).getClassInfo();
+        introspector.setIsExludeType(true);
+        introspector.setExternalFilterExcludeClasses(Bean.class);
+        assertEquals(Boolean.TRUE, introspector.isIgnorableType(beanClass));
+        assertNull(introspector.isIgnorableType(rectangleClass));
+        introspector.removeExternalFilterExcludeClass(Bean.class);
+        assertNull(introspector.isIgnorableType(beanClass));
+        introspector.setIsExludeType(false);
+        introspector.setExternalFilterIncludeClasses(Bean.class);
+        assertNull(introspector.isIgnorableType(beanClass));
+        assertEquals(Boolean.TRUE, introspector.isIgnorableType(rectangleClass));
+    }
+
+    /**
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testFilterCacheStatistics() throws Exception {
+        CacheService cacheService = ((Jackson2MapperService) sc).getCacheService();
+        Rectangle rectangle = new Rectangle(5, 10);
+        assertEquals("{\"w\":5,\"h\":10}", sc.serializeOnlyFilter(rectangle, Rectangle.class, "w", "h"));
+        long misses = cacheService.getFilterCacheMissCount();
+        long hits = cacheService.getFilterCacheHitCount();
+        // same signature, the order of the attributes is not relevant
+        assertEquals("{\"w\":5,\"h\":10}", sc.serializeOnlyFilter(rectangle, Rectangle.class, "h", "w"));
+        assertEquals(misses, cacheService.getFilterCacheMissCount());
+        assertEquals(hits + 1, cacheService.getFilterCacheHitCount());
+        assertTrue(cacheService.getFilterCacheSize() > 0);
+    }
+
+    /**
+     * nested dotted paths and JSON Pointers, relative to the filter class
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testSerializeWithPathFilters() throws Exception {
+        Team team = new Team("team1");
+        team.setLead(bean("joe", 12));
+        team.getMembers().add(bean("jim", 13));
+        team.getMembers().add(bean("jane", 14));
+        assertEquals("{\"name\":\"team1\",\"lead\":{\"name\":\"joe\"}}",
+                sc.serializeOnlyFilter(team, Team.class, "name", "lead.name"));
+        assertEquals("{\"lead\":{\"age\":12},\"members\":[{\"age\":13},{\"age\":14}]}",
+                sc.serializeOnlyFilter(team, Team.class, "/lead/age", "/members/age"));
+        // a path to an object includes the whole object
+        assertEquals("{\"lead\":{\"name\":\"joe\",\"age\":12,\"profession\":\"prof\"}}",
+                sc.serializeOnlyFilter(team, Team.class, "lead", "/unknown/name"));
+        assertEquals("{\"name\":\"team1\",\"lead\":{\"name\":\"joe\",\"profession\":\"prof\"}}",
+                sc.serializeAllExceptFilter(team, Team.class, "lead.age", "members"));
+        // root is a collection
+        assertEquals("[{\"name\":\"jim\"},{\"name\":\"jane\"}]",
+                sc.serializeOnlyFilter(team.getMembers(), Bean.class, "name", "lead.name"));
+        // flat attributes are not affected
+        assertEquals("{\"name\":\"team1\"}", sc.serializeOnlyFilter(team, Team.class, "name"));
+        // the same instance on different paths
+        Bean joe = team.getLead();
+        team.getMembers().add(0, joe);
+        assertEquals("{\"lead\":{\"name\":\"joe\"},\"members\":[{\"age\":12},{\"age\":13},{\"age\":14}]}",
+                sc.serializeOnlyFilter(team, Team.class, "lead.name", "members.age"));
+        Map<String, Object> teams = new LinkedHashMap<String, Object>();
+        teams.put("a", team);
+        teams.put("b", team);
+        assertEquals("{\"a\":{\"lead\":{\"name\":\"joe\"}},\"b\":{\"lead\":{\"name\":\"joe\"}}}",
+                sc.serializeOnlyFilter(teams, Team.class, "lead.name"));
+    }
+
+    private Bean bean(String name, int age) {
+        Bean bean = new Bean();
+        bean.setName(name);
+        bean.setAge(age);
+        bean.setProfession("prof");
+        return bean;
+    }
+
+    /**
+     * filter profiles configured in the component configuration
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testSerializeWithConfiguredFilterProfile() throws Exception {
+        assertEquals("{\"name\":\"joe\"}", sc.ser(bean("joe", 12), "beanName"));
+        assertEquals("{\"w\":5,\"h\":10}", sc.ser(new Rectangle(5, 10, "rect"), "rectangleSize"));
+        // profiles do not keep a filter
+        assertEquals("{\"name\":\"joe\",\"age\":12,\"profession\":\"prof\"}", sc.ser(bean("joe", 12)));
+        assertThrows(IllegalArgumentException.class, () -> sc.ser(bean("joe", 12), "unknown"));
+    }
+
+    /**
+     * the cached writers and readers are replaced, if the configuration changes
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testCachedWritersFollowConfiguration() throws Exception {
+        Map<String, Object> map = new HashMap<String, Object>();
+        map.put("date", new SimpleDateFormat("MM/dd/yyyy").parse("12/24/2020"));
+        assertEquals("{\"date\":\"12/24/2020\"}", sc.ser(map));
+        assertEquals("{\"date\":\"12/24/2020\"}", sc.ser(map, Object.class));
+        assertEquals("12/24/2020", sc.ser(sc.deSer("\"12/24/2020\"", Date.class)).replace("\"", ""));
+        sc.setDateFormat(new SimpleDateFormat("yyyy-MM-dd"));
+        assertEquals("{\"date\":\"2020-12-24\"}", sc.ser(map));
+        assertEquals("{\"date\":\"2020-12-24\"}", sc.ser(map, Object.class));
+        assertEquals("\"2020-12-24\"", sc.ser(sc.deSer("\"2020-12-24\"", Date.class)));
+    }
+
+    /**
+     * date values are formatted with the configured pattern, annotated formats
+     * are kept
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testDateTimeModule() throws Exception {
+        Date date = new SimpleDateFormat("MM/dd/yyyy").parse("12/24/2020");
+        DatedBean bean = new DatedBean();
+        bean.created = date;
+        bean.year = date;
+        String json = sc.ser(bean);
+        assertEquals("{\"created\":\"12/24/2020\",\"year\":\"2020\"}", json);
+        // rendered from the cache
+        assertEquals(json, sc.ser(bean));
+        DatedBean result = sc.deSer(json, DatedBean.class);
+        assertEquals(date, result.created);
+        SimpleDateFormat utc = new SimpleDateFormat("yyyy");
+        utc.setTimeZone(TimeZone.getTimeZone("UTC"));
+        assertEquals(utc.parse("2020"), result.year);
+    }
+
+    /**
+     * dates are rendered and parsed like by the configured SimpleDateFormat
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testDateTimeModuleLikeSimpleDateFormat() throws Exception {
+        // lenient parsing of single digits and trailing text
+        SimpleDateFormat dateOnly = new SimpleDateFormat("MM/dd/yyyy");
+        assertEquals(dateOnly.parse("1/5/2020"), sc.deSer("\"1/5/2020\"", Date.class));
+        assertEquals(dateOnly.parse("01/05/2020"), sc.deSer("\"01/05/2020 10:00\"", Date.class));
+        // text fields in the locale of the format
+        SimpleDateFormat german = new SimpleDateFormat("dd. MMMM yyyy", Locale.GERMAN);
+        Date date = german.parse("05. M\u00e4rz 2020");
+        sc.setDateFormat(german);
+        assertEquals("\"05. M\u00e4rz 2020\"", sc.ser(date));
+        assertEquals(date, sc.deSer("\"05. M\u00e4rz 2020\"", Date.class));
+        // 12-hour fields with and without marker
+        SimpleDateFormat hours = new SimpleDateFormat("yyyy-MM-dd hh:mm a", Locale.US);
+        date = hours.parse("2020-01-05 03:30 PM");
+        sc.setDateFormat(hours);
+        assertEquals("\"2020-01-05 03:30 PM\"", sc.ser(date));
+        assertEquals(date, sc.deSer("\"2020-01-05 03:30 PM\"", Date.class));
+        SimpleDateFormat noMarker = new SimpleDateFormat("yyyy-MM-dd hh:mm");
+        sc.setDateFormat(noMarker);
+        assertEquals(noMarker.parse("2020-01-05 11:30"), sc.deSer("\"2020-01-05 11:30\"", Date.class));
+        assertEquals("\"" + noMarker.format(date) + "\"", sc.ser(date));
+    }
+
+    /**
+     * a time zone set on the mapper is applied like by the Jackson serializer
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testDateTimeModuleMapperTimeZone() throws Exception {
+        SimpleDateFormat df = new SimpleDateFormat("yyyy-MM-dd HH:mm");
+        df.setTimeZone(TimeZone.getTimeZone("UTC"));
+        sc.setDateFormat(df);
+        Date date = df.parse("2020-12-24 10:30");
+        assertEquals("\"2020-12-24 10:30\"", sc.ser(date));
+        ObjectMapper mapper = ((Jackson2MapperService) sc).getMapper();
+        mapper.setTimeZone(TimeZone.getTimeZone("America/New_York"));
+        assertEquals("\"2020-12-24 05:30\"", sc.ser(date));
+        assertEquals("{\"date\":\"2020-12-24 05:30\"}", sc.ser(Collections.singletonMap("date", date)));
+        mapper.setTimeZone(TimeZone.getTimeZone("UTC"));
+        assertEquals("\"2020-12-24 10:30\"", sc.ser(date));
+    }
+
+    /**
+     * subclasses of Date keep the Jackson serializers
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testDateTimeModuleSqlDates() throws Exception {
+        SimpleDateFormat df = new SimpleDateFormat("MM/dd/yyyy");
+        ObjectMapper plain = new ObjectMapper().setDateFormat(df);
+        long millis = df.parse("12/24/2020").getTime();
+        java.sql.Date sqlDate = new java.sql.Date(millis);
+        java.sql.Timestamp timestamp = new java.sql.Timestamp(millis + 1);
+        assertEquals(plain.writeValueAsString(sqlDate), sc.ser(sqlDate));
+        assertEquals(plain.writeValueAsString(timestamp), sc.ser(timestamp));
+        assertEquals("\"12/24/2020\"", sc.ser(new Date(millis)));
+    }
+
+    /**
+     * the configured types are resolved at initialization
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testWarmup() throws Exception {
+        ObjectMapper mapper = ((Jackson2MapperService) sc).getMapper();
+        assertTrue(((DefaultSerializerProvider) mapper.getSerializerProvider()).cachedSerializersCount() > 0);
+        List<Rectangle> rectangles = new ArrayList<>();
+        rectangles.add(new Rectangle(5, 10, "rect"));
+        String json = sc.ser(rectangles);
+        assertEquals(rectangles.get(0).getName(),
+                ((Jackson2MapperService) sc).deSerList(json, ArrayList.class, Rectangle.class).get(0).getName());
+    }
+
+    /**
+     * the deserializers of the configured types are resolved at initialization
+     * and again after a configuration change
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testWarmupDeserializers() throws Exception {
+        Map<Class<?>, Integer> resolved = new HashMap<>();
+        SimpleModule module = new SimpleModule();
+        module.setDeserializerModifier(new BeanDeserializerModifier() {
+            @Override
+            public JsonDeserializer<?> modifyDeserializer(DeserializationConfig config, BeanDescription beanDesc,
+                    JsonDeserializer<?> deserializer) {
+                resolved.merge(beanDesc.getBeanClass(), 1, Integer::sum);
+                return deserializer;
+            }
+        });
+        ((Jackson2MapperService) sc).registerModule(module);
+        assertEquals(1, resolved.get(Bean.class));
+        assertEquals(1, resolved.get(Rectangle.class));
+        assertEquals("bean1", sc.deSer("{\"name\":\"bean1\"}", Bean.class).getName());
+        assertEquals("rect", ((Jackson2MapperService) sc)
+                .deSerList("[{\"w\":5,\"h\":10,\"name\":\"rect\"}]", ArrayList.class, Rectangle.class).get(0).getName());
+        assertEquals(1, resolved.get(Bean.class));
+        assertEquals(1, resolved.get(Rectangle.class));
+    }
+
+    /**
+     * concurrent first filter calls publish only one filter mapper
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testFilterMapperPublishedOnce() throws Exception {
+        CacheService cacheService = new CacheService(null);
+        ObjectMapper mapper = new ObjectMapper();
+        AtomicInteger copies = new AtomicInteger();
+        int threads = 8;
+        CyclicBarrier barrier = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<ObjectWriter>> results = new ArrayList<>();
+            for (int i = 0; i < threads; i++) {
+                results.add(executor.submit(() -> {
+                    barrier.await();
+                    return cacheService.getFilterWriter(mapper, () -> {
+                        copies.incrementAndGet();
+                        // widens the window for concurrent callers
+                        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(50));
+                        return mapper.copy();
+                    });
+                }));
+            }
+            ObjectWriter first = results.get(0).get();
+            for (Future<ObjectWriter> result : results) {
+                assertSame(first, result.get());
+            }
+        } finally {
+            executor.shutdown();
+        }
+        assertEquals(1, copies.get());
+    }
+
+    /**
+     * cleaning the cache drops only the filter profiles of the class
+     *
+     * @throws Exception generic exception
+     */
+    @Test
+    public void testCleanCacheWithoutFullFlush() throws Exception {
+        CacheService cacheService = ((Jackson2MapperService) sc).getCacheService();
+        Bean bean = new Bean();
+        bean.setAge(1);
+        bean.setName("bean1");
+        sc.ser(bean);
+        long fullFlushes = cacheService.getFullFlushCount();
+        assertEquals("{\"name\":\"bean1\"}", sc.serializeOnlyFilter(bean, Bean.class, true, "name"));
+        assertEquals("{\"age\":1}", sc.serializeOnlyFilter(bean, Bean.class, false, "age"));
+        // kept filter
+        assertEquals("{\"age\":1}", sc.ser(bean, true));
+        String serJson = sc.ser(bean, true);
+        assertTrue(serJson.contains("\"name\":\"bean1\""), "unfiltered serialization expected: " + serJson);
+        assertEquals(fullFlushes, cacheService.getFullFlushCount());
+        sc.addAdapter("M4RBeanMixin", Bean.class, BeanMixin.class);
+        assertEquals(fullFlushes + 1, cacheService.getFullFlushCount());
+    }
+
     /**
      * 
      * @param testReporter to report test infos (may propagate)
@@ -742,3 +1336,11 @@ abstract class TextClassMixin {
     @JsonIgnore
     abstract Map<String, Object> getContainer();
 }
+
+class DatedBean {
+
+    public Date created;
+
+    @JsonFormat(pattern = "yyyy")
+    public Date year;
+}
@@ -0,0 +1,128 @@
+package org.apache.fulcrum.json.jackson;
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.ByteArrayOutputStream;
+import java.io.StringWriter;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+import org.apache.fulcrum.json.JsonService;
+import org.apache.fulcrum.json.jackson.example.Rectangle;
+import org.apache.fulcrum.testcontainer.BaseUnit5Test;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.dataformat.cbor.CBORFactory;
+import com.fasterxml.jackson.dataformat.smile.SmileFactory;
+
+/**
+ * Jackson 2 Test with configured binary Smile format.
+ * 
+ * @author gk
+ * @version $Id$
+ */
+public class SmileJacksonMapperTest extends BaseUnit5Test {
+
+    private JsonService sc = null;
+
+    @BeforeEach
+    public void setUp() throws Exception {
+        setConfigurationFileName("src/test/TestSmileComponentConfig.xml");
+        sc = (JsonService) this.lookup(JsonService.ROLE);
+    }
+
+    @Test
+    public void testSmileFactory() throws Exception {
+        assertTrue(((Jackson2MapperService) sc).getMapper().getFactory() instanceof SmileFactory);
+    }
+
+    @Test
+    public void testSerializeBytes() throws Exception {
+        Rectangle rectangle = new Rectangle(5, 10, "jim");
+        byte[] smile = sc.serToBytes(rectangle);
+        // Smile header ':)\n'
+        assertEquals(':', smile[0]);
+        assertEquals(')', smile[1]);
+        Rectangle result = sc.deSer(smile, Rectangle.class);
+        assertEquals("jim", result.getName());
+        assertEquals(10, result.getH());
+    }
+
+    @Test
+    public void testSerializeOnlyFilterToStream() throws Exception {
+        Rectangle rectangle = new Rectangle(5, 10, "jim");
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        sc.serializeOnlyFilter(rectangle, out, Rectangle.class, "w");
+        Rectangle result = sc.deSer(out.toByteArray(), Rectangle.class);
+        assertEquals(5, result.getW());
+        assertEquals(0, result.getH());
+        assertEquals(null, result.getName());
+    }
+
+    @Test
+    public void testDeserializationAsync() throws Exception {
+        List<Rectangle> rectList = new ArrayList<Rectangle>();
+        for (int i = 0; i < 10; i++) {
+            rectList.add(new Rectangle(i, i, "rect" + i));
+        }
+        byte[] smile = sc.serToBytes(rectList);
+        List<Rectangle> result = new ArrayList<>();
+        try (AsyncDeserializer<Rectangle> deser = ((Jackson2MapperService) sc).deSerAsync(Rectangle.class, true)) {
+            // Smile is fed as byte array, a direct buffer is copied
+            ByteBuffer chunk = ByteBuffer.allocateDirect(7);
+            for (int offset = 0; offset < smile.length; offset += 7) {
+                chunk.clear();
+                chunk.put(smile, offset, Math.min(7, smile.length - offset)).flip();
+                result.addAll(deser.feed(chunk));
+            }
+            result.addAll(deser.endOfInput());
+        }
+        assertEquals(10, result.size());
+        assertEquals("rect9", result.get(9).getName());
+    }
+
+    @Test
+    public void testJsonLinesNotSupported() throws Exception {
+        List<Rectangle> rectList = Collections.singletonList(new Rectangle(5, 10, "jim"));
+        assertThrows(UnsupportedOperationException.class,
+                () -> sc.serJsonLines(rectList.iterator(), new ByteArrayOutputStream()));
+        assertThrows(UnsupportedOperationException.class,
+                () -> sc.serJsonLines(rectList.iterator(), new StringWriter()));
+        Jackson2MapperService service = new Jackson2MapperService();
+        service.mapper = new ObjectMapper(new CBORFactory());
+        assertThrows(UnsupportedOperationException.class,
+                () -> service.serJsonLines(rectList.iterator(), new ByteArrayOutputStream()));
+    }
+
+    @Test
+    public void testDeserializationAsyncNotSupported() throws Exception {
+        Jackson2MapperService service = new Jackson2MapperService();
+        service.mapper = new ObjectMapper(new CBORFactory());
+        assertThrows(UnsupportedOperationException.class, () -> service.deSerAsync(Rectangle.class));
+    }
+}
@@ -32,6 +32,11 @@ import java.util.Arrays;
 import java.util.Collection;
 import java.util.List;
 import java.util.Random;
+import java.util.concurrent.CyclicBarrier;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
 import java.util.stream.IntStream;
 
 import org.apache.avalon.framework.component.ComponentException;
@@ -271,6 +276,64 @@ public class JSONConcurrentJunit5Test extends BaseUnit5Test {
         assertThat(fOne, is(fThree));
     }
 
+    /**
+     * Concurrent callers filter the same class with different attributes, each
+     * result has to contain exactly the requested attributes. The threads start
+     * together and each alternates between including and excluding filters of
+     * the service and the compiled writers, so the per call filter contexts
+     * overlap.
+     */
+    @RepeatedTest(3)
+    public void testSameClassDifferentFiltersInParallel() throws Exception {
+        Bean bean = new Bean();
+        bean.setName("joe");
+        bean.setAge(12);
+        bean.profession = "prof";
+        Jackson2MapperService service = (Jackson2MapperService) jsonService;
+        String[][] filters = { { "name" }, { "age" }, { "name", "age" }, { "profession" } };
+        String[] only = { "{\"name\":\"joe\"}", "{\"age\":12}", "{\"name\":\"joe\",\"age\":12}",
+                "{\"profession\":\"prof\"}" };
+        String[] allExcept = { "{\"age\":12,\"profession\":\"prof\"}", "{\"name\":\"joe\",\"profession\":\"prof\"}",
+                "{\"profession\":\"prof\"}", "{\"name\":\"joe\",\"age\":12}" };
+        int threads = 8;
+        CyclicBarrier start = new CyclicBarrier(threads);
+        ExecutorService executor = Executors.newFixedThreadPool(threads);
+        try {
+            List<Future<?>> results = new ArrayList<>();
+            for (int t = 0; t < threads; t++) {
+                int offset = t;
+                results.add(executor.submit(() -> {
+                    start.await();
+                    for (int i = 0; i < 500; i++) {
+                        int f = (i + offset) % filters.length;
+                        switch ((i + offset) % 4) {
+                        case 0:
+                            assertEquals(only[f], service.serializeOnlyFilter(bean, Bean.class, filters[f]));
+                            break;
+                        case 1:
+                            assertEquals(only[f],
+                                    service.getOnlyFilterWriter(Bean.class, filters[f]).writeValueAsString(bean));
+                            break;
+                        case 2:
+                            assertEquals(allExcept[f], service.serializeAllExceptFilter(bean, Bean.class, filters[f]));
+                            break;
+                        default:
+                            assertEquals(allExcept[f],
+                                    service.getAllExceptFilterWriter(Bean.class, filters[f]).writeValueAsString(bean));
+                            break;
+                        }
+                    }
+                    return null;
+                }));
+            }
+            for (Future<?> result : results) {
+                result.get(60, TimeUnit.SECONDS);
+            }
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+
     private TestExecutionSummary defaultExecute(final LauncherDiscoveryRequest request) {
         final Launcher launcher = LauncherFactory.create();
         final SummaryGeneratingListener listener = new SummaryGeneratingListener();
@@ -0,0 +1,61 @@
+package org.apache.fulcrum.json.jackson.example;
+
+
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one
+ * or more contributor license agreements.  See the NOTICE file
+ * distributed with this work for additional information
+ * regarding copyright ownership.  The ASF licenses this file
+ * to you under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance
+ * with the License.  You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing,
+ * software distributed under the License is distributed on an
+ * "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY
+ * KIND, either express or implied.  See the License for the
+ * specific language governing permissions and limitations
+ * under the License.
+ */
+
+import java.util.ArrayList;
+import java.util.List;
+
+public class Team {
+    private String name;
+    private Bean lead;
+    private List<Bean> members = new ArrayList<>();
+
+    public Team() {
+    }
+
+    public Team(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void setName(String name) {
+        this.name = name;
+    }
+
+    public Bean getLead() {
+        return lead;
+    }
+
+    public void setLead(Bean lead) {
+        this.lead = lead;
+    }
+
+    public List<Bean> getMembers() {
+        return members;
+    }
+
+    public void setMembers(List<Bean> members) {
+        this.members = members;
+    }
+}